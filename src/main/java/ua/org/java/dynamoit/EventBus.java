@@ -24,7 +24,9 @@ import javafx.beans.property.SimpleIntegerProperty;
 import ua.org.java.dynamoit.components.tablegrid.TableGridContext;
 import ua.org.java.dynamoit.widgets.ExceptionDialog;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -69,13 +71,21 @@ public class EventBus {
         startActivity();
         return completableFuture.whenComplete((o, throwable) -> {
             stopActivity();
-            if (throwable != null) {
+            if (isCancellation(throwable)) {
+                // superseded work is not an error
+                logger.fine(() -> "Activity cancelled: " + throwable.getMessage());
+            } else if (throwable != null) {
                 logger.log(Level.SEVERE, "Activity fail", throwable);
                 CompletableFuture.runAsync(() -> new ExceptionDialog(errorMessage, errorDescription, throwable).show(), uiExecutor);
             }
         });
     }
 
+    private static boolean isCancellation(Throwable throwable) {
+        return throwable instanceof CancellationException
+                || throwable instanceof CompletionException && throwable.getCause() instanceof CancellationException;
+    }
+
     public void setSelectedTable(TableGridContext context) {
         this.selectedTable.onNext(context);
     }
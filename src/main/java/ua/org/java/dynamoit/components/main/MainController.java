@@ -28,6 +28,7 @@ import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.services.DynamoDbService;
 import ua.org.java.dynamoit.model.profile.ProfileDetails;
 import ua.org.java.dynamoit.services.ProfileService;
+import ua.org.java.dynamoit.utils.AppExecutors;
 import ua.org.java.dynamoit.utils.FXExecutor;
 
 import java.util.concurrent.CompletableFuture;
@@ -39,17 +40,19 @@ public class MainController {
     private final EventBus eventBus;
     private final HostServices hostServices;
     private final ThemeManager themeManager;
+    private final AppExecutors executors;
     private Consumer<TableGridContext> selectedTableConsumer;
 
-    public MainController(DynamoDbService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager) {
+    public MainController(DynamoDbService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager, AppExecutors executors) {
         this.model = model;
         this.eventBus = eventBus;
         this.hostServices = hostServices;
         this.themeManager = themeManager;
+        this.executors = executors;
 
         eventBus.activity(
                 CompletableFuture
-                        .supplyAsync(ProfileService::getDefaultProfiles)
+                        .supplyAsync(ProfileService::getDefaultProfiles, executors.io())
                         .thenAcceptAsync(profiles -> profiles.forEach(model::addProfile), FXExecutor.getInstance()),
                 "AWS configuration settings has not been discovered",
                 "Please check that your aws cli is properly configured https://docs.aws.amazon.com/cli/latest/userguide/cli-configure-quickstart.html"
@@ -69,6 +72,7 @@ public class MainController {
                 .tableContext(tableContext)
                 .hostServices(hostServices)
                 .themeManager(themeManager)
+                .executors(executors)
                 .build();
     }
 
@@ -77,6 +81,7 @@ public class MainController {
                 .mainModel(model)
                 .eventBus(eventBus)
                 .profile(profile)
+                .executors(executors)
                 .build();
     }
 
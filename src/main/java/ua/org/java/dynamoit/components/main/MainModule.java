@@ -25,8 +25,10 @@ import javafx.scene.layout.Region;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.services.DynamoDbService;
+import ua.org.java.dynamoit.utils.AppExecutors;
 import ua.org.java.dynamoit.utils.FXExecutor;
 import ua.org.java.dynamoit.widgets.ActivityIndicator;
+import ua.org.java.dynamoit.widgets.ExecutorsIndicator;
 
 import javax.inject.Singleton;
 
@@ -44,6 +46,11 @@ public class MainModule {
         return new ActivityIndicator(eventBus);
     }
 
+    @Provides
+    public static ExecutorsIndicator executorsIndicator(AppExecutors executors) {
+        return new ExecutorsIndicator(executors);
+    }
+
     @Provides
     public static Region mainView(MainView mainView) {
         return mainView;
@@ -62,8 +69,14 @@ public class MainModule {
     }
 
     @Provides
-    public static MainController controller(DynamoDbService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager) {
-        return new MainController(dynamoDBService, model, eventBus, hostServices, themeManager);
+    @Singleton
+    public static AppExecutors executors() {
+        return new AppExecutors();
+    }
+
+    @Provides
+    public static MainController controller(DynamoDbService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager, AppExecutors executors) {
+        return new MainController(dynamoDBService, model, eventBus, hostServices, themeManager, executors);
     }
 
 }
@@ -39,6 +39,7 @@ import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.utils.DX;
 import ua.org.java.dynamoit.utils.HighlightColors;
 import ua.org.java.dynamoit.widgets.ActivityIndicator;
+import ua.org.java.dynamoit.widgets.ExecutorsIndicator;
 
 import javax.inject.Inject;
 import java.util.*;
@@ -58,7 +59,7 @@ public class MainView extends VBox {
     private double dividerPosition = 0.35;
 
     @Inject
-    public MainView(MainModel mainModel, MainController controller, ActivityIndicator activityIndicator, ThemeManager themeManager) {
+    public MainView(MainModel mainModel, MainController controller, ActivityIndicator activityIndicator, ExecutorsIndicator executorsIndicator, ThemeManager themeManager) {
         this.mainModel = mainModel;
         this.controller = controller;
         this.controller.setSelectedTableConsumer(this::createAndOpenTab);
@@ -121,6 +122,7 @@ public class MainView extends VBox {
                             DX.create(Pane::new, pane -> {
                                 HBox.setHgrow(pane, Priority.ALWAYS);
                             }),
+                            executorsIndicator,
                             activityIndicator
                     );
                 })
@@ -175,6 +177,7 @@ public class MainView extends VBox {
                 DX.create(() -> new Tab(tableContext.tableName(), tableItemsView), tab -> {
                     MainModel.ProfileModel profileModel = mainModel.getAvailableProfiles().get(tableContext.profileDetails().getName());
                     profileModel.getColor().ifPresent(color -> tab.getStyleClass().add(color.tabClass()));
+                    tab.setOnClosed(__ -> tableItemsView.onClose());
                     tab.setContextMenu(DX.contextMenu(contextMenu -> List.of(
                             DX.create(MenuItem::new, menu -> {
                                 menu.setText("Close");
@@ -22,6 +22,7 @@ import dagger.Component;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.main.MainModel;
 import ua.org.java.dynamoit.db.DynamoDBModule;
+import ua.org.java.dynamoit.utils.AppExecutors;
 
 import javax.inject.Singleton;
 
@@ -39,6 +40,8 @@ public interface ProfileComponent {
         ProfileComponent.Builder profile(String profile);
         @BindsInstance
         ProfileComponent.Builder eventBus(EventBus eventBus);
+        @BindsInstance
+        ProfileComponent.Builder executors(AppExecutors executors);
         ProfileComponent build();
     }
 
@@ -17,43 +17,37 @@
 
 package ua.org.java.dynamoit.components.tablegrid;
 
-import javafx.util.Pair;
-import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
-import ua.org.java.dynamoit.utils.Utils;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
-import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.math.BigDecimal;
+import java.util.Base64;
 
 public final class Attributes {
 
     public enum Type {
-        STRING, NUMBER, BOOLEAN
+        STRING, NUMBER, BOOLEAN, BINARY
     }
 
     private Attributes() {
     }
 
 
-    public static Map<String, Attributes.Type> defineAttributesTypes(List<EnhancedDocument> itemList) {
-        Function<Object, Attributes.Type> mapper = value -> {
-            if (value != null) {
-                if (value instanceof Boolean) {
+    /**
+     * @return type of the column of the value, sets, lists and maps are shown as strings
+     */
+    public static Type typeOf(AttributeValue value) {
+        if (value != null) {
+            switch (value.type()) {
+                case BOOL:
                     return Attributes.Type.BOOLEAN;
-                }
-                if (value instanceof Number) {
+                case N:
                     return Attributes.Type.NUMBER;
-                }
+                case B:
+                    return Attributes.Type.BINARY;
             }
-            return Attributes.Type.STRING;
-        };
-
-        return itemList.stream()
-                .flatMap(item ->
-                        Utils.asStream(item.toMap().entrySet())
-                                .map(entry -> new Pair<>(entry.getKey(), mapper.apply(entry.getValue()))))
-                .collect(Collectors.toMap(Pair::getKey, Pair::getValue, (attributeType, attributeType2) -> attributeType));
+        }
+        return Attributes.Type.STRING;
     }
 
     public static Type fromDynamoDBType(String dynamoDBType) {
@@ -62,10 +56,45 @@ public final class Attributes {
                 return Type.NUMBER;
             case "BOOL":
                 return Type.BOOLEAN;
+            case "B":
+                return Type.BINARY;
         }
         return Attributes.Type.STRING;
     }
 
+    /**
+     * Value of a filter bound with the type of the attribute, a value which doesn't fit the type is bound as a string
+     *
+     * @param term text of the value, base64 for binary attributes
+     * @param type null for unknown attributes
+     */
+    public static AttributeValue toAttributeValue(String term, Type type) {
+        if (type != null) {
+            String trimmed = term.trim();
+            switch (type) {
+                case NUMBER:
+                    try {
+                        new BigDecimal(trimmed);
+                        return AttributeValue.fromN(trimmed);
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                case BOOLEAN:
+                    if ("true".equalsIgnoreCase(trimmed) || "false".equalsIgnoreCase(trimmed)) {
+                        return AttributeValue.fromBool(Boolean.parseBoolean(trimmed));
+                    }
+                    break;
+                case BINARY:
+                    try {
+                        return AttributeValue.fromB(SdkBytes.fromByteArray(Base64.getDecoder().decode(trimmed)));
+                    } catch (IllegalArgumentException e) {
+                        break;
+                    }
+            }
+        }
+        return AttributeValue.fromS(term);
+    }
+
 //    public static <T extends Filter<T>> T attributeValueToFilter(String attribute, String value, Type type, Function<String, T> filterProvider) {
 //        T filter = filterProvider.apply(attribute);
 //
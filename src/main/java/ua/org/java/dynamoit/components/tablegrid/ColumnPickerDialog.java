@@ -0,0 +1,80 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.CheckBoxListCell;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import ua.org.java.dynamoit.utils.DX;
+
+import java.util.*;
+
+/**
+ * Lists all attributes of a table, also the ones which columns are not materialized, the checked attributes are pinned
+ */
+public class ColumnPickerDialog extends Dialog<Set<String>> {
+
+    private final Map<String, SimpleBooleanProperty> pinned = new LinkedHashMap<>();
+
+    public ColumnPickerDialog(List<String> attributes, Collection<String> pinnedAttributes) {
+        attributes.forEach(attribute -> pinned.put(attribute, new SimpleBooleanProperty(pinnedAttributes.contains(attribute))));
+        FilteredList<String> filteredAttributes = new FilteredList<>(FXCollections.observableArrayList(attributes));
+
+        setTitle("Pin columns");
+        ((Stage) this.getDialogPane().getScene().getWindow()).getIcons().add(new Image("icons/sort_columns.png"));
+        getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        setResizable(true);
+
+        getDialogPane().setContent(DX.create(VBox::new, vBox -> {
+            vBox.setSpacing(7);
+            vBox.getChildren().addAll(
+                    DX.create(TextField::new, textField -> {
+                        textField.setPromptText("Search attribute");
+                        textField.textProperty().addListener((observable, oldValue, newValue) -> {
+                            String search = newValue == null ? "" : newValue.trim().toLowerCase(Locale.ROOT);
+                            filteredAttributes.setPredicate(attribute -> attribute.toLowerCase(Locale.ROOT).contains(search));
+                        });
+                    }),
+                    DX.create(() -> new ListView<>(filteredAttributes), listView -> {
+                        VBox.setVgrow(listView, Priority.ALWAYS);
+                        listView.setPrefSize(300, 400);
+                        listView.setCellFactory(CheckBoxListCell.forListView(pinned::get));
+                    })
+            );
+        }));
+
+        setResultConverter(buttonType -> {
+            if (buttonType == ButtonType.OK) {
+                Set<String> result = new LinkedHashSet<>();
+                pinned.forEach((attribute, property) -> {
+                    if (property.get()) {
+                        result.add(attribute);
+                    }
+                });
+                return result;
+            }
+            return null;
+        });
+    }
+
+}
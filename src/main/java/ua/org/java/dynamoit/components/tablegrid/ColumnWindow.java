@@ -0,0 +1,161 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import java.util.*;
+
+/**
+ * Attributes shown as columns of the grid and which of them have to be materialized for the horizontal viewport.
+ * <p>
+ * New attributes are found by a hash set instead of comparing with every column.
+ * A wide table is virtualized: only the pinned columns, the columns in the viewport plus a margin and the sorted columns
+ * are materialized, the others are kept as a width and replaced by gaps of the same width.
+ */
+class ColumnWindow {
+
+    static final double DEFAULT_WIDTH = 200;
+
+    /**
+     * Number of attributes from which the columns are virtualized, dynamoit.columns.virtualize system property
+     */
+    static final int VIRTUALIZE_THRESHOLD = Integer.getInteger("dynamoit.columns.virtualize", 100);
+
+    private final List<String> attributes = new ArrayList<>();
+    private final Set<String> known = new HashSet<>();
+    private final Map<String, Double> widths = new HashMap<>();
+    private final Set<String> pinned = new LinkedHashSet<>();
+
+    /**
+     * @return attributes which have not been known before, in the given order
+     */
+    List<String> addAll(Collection<String> names) {
+        List<String> added = new ArrayList<>();
+        for (String name : names) {
+            if (known.add(name)) {
+                attributes.add(name);
+                added.add(name);
+            }
+        }
+        return added;
+    }
+
+    List<String> getAttributes() {
+        return Collections.unmodifiableList(attributes);
+    }
+
+    boolean isVirtualized() {
+        return attributes.size() > VIRTUALIZE_THRESHOLD;
+    }
+
+    double getWidth(String attribute) {
+        return widths.getOrDefault(attribute, DEFAULT_WIDTH);
+    }
+
+    /**
+     * Remembers the width of the column, it's kept while the column is not materialized
+     */
+    void setWidth(String attribute, double width) {
+        widths.put(attribute, width);
+    }
+
+    /**
+     * @return pinned attributes in the order of the attributes
+     */
+    List<String> getPinned() {
+        return attributes.stream().filter(pinned::contains).toList();
+    }
+
+    /**
+     * Pinned columns are always materialized and shown before the others
+     */
+    void setPinned(Collection<String> attributes) {
+        pinned.clear();
+        pinned.addAll(attributes);
+    }
+
+    /**
+     * @param offset   horizontal offset of the viewport from the first not pinned column
+     * @param viewport width of the viewport
+     * @param margin   width materialized on both sides of the viewport
+     * @param sticky   attributes which stay materialized wherever they are, e.g. sorted columns
+     * @return pinned columns followed by the other columns and the gaps between them
+     */
+    List<Slot> layout(double offset, double viewport, double margin, Set<String> sticky) {
+        List<Slot> slots = new ArrayList<>();
+        getPinned().forEach(attribute -> slots.add(new Column(attribute)));
+
+        boolean virtualized = isVirtualized();
+        double from = offset - margin;
+        double to = offset + viewport + margin;
+        double x = 0;
+        double gap = 0;
+        for (String attribute : attributes) {
+            if (pinned.contains(attribute)) {
+                continue;
+            }
+            double width = getWidth(attribute);
+            if (!virtualized || x + width > from && x < to || sticky.contains(attribute)) {
+                if (gap > 0) {
+                    slots.add(new Gap(gap));
+                    gap = 0;
+                }
+                slots.add(new Column(attribute));
+            } else {
+                gap += width;
+            }
+            x += width;
+        }
+        if (gap > 0) {
+            slots.add(new Gap(gap));
+        }
+        return slots;
+    }
+
+    /**
+     * @param offset   horizontal offset of the viewport from the first not pinned column
+     * @param viewport width of the viewport
+     * @return pinned attributes and the attributes which columns intersect the viewport, whether the columns are virtualized or not
+     */
+    List<String> visible(double offset, double viewport) {
+        List<String> visible = new ArrayList<>(getPinned());
+        double x = 0;
+        for (String attribute : attributes) {
+            if (pinned.contains(attribute)) {
+                continue;
+            }
+            double width = getWidth(attribute);
+            if (x + width > offset && x < offset + viewport) {
+                visible.add(attribute);
+            }
+            x += width;
+        }
+        return visible;
+    }
+
+    /**
+     * Place of a materialized column or of the columns which are not materialized
+     */
+    sealed interface Slot {
+    }
+
+    record Column(String attribute) implements Slot {
+    }
+
+    record Gap(double width) implements Slot {
+    }
+
+}
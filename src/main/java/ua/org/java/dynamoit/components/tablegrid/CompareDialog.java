@@ -46,6 +46,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class CompareDialog extends Dialog<Void> {
@@ -55,7 +56,10 @@ public class CompareDialog extends Dialog<Void> {
     private final ObservableListIterator<Integer> diffIterator = new ObservableListIterator<>();
     private final IntegerProperty diffCount = new SimpleIntegerProperty(0);
 
-    public CompareDialog(String text1, String text2) {
+    /**
+     * @param diffExecutor computes the difference of the documents
+     */
+    public CompareDialog(String text1, String text2, Executor diffExecutor) {
         ((Stage) this.getDialogPane().getScene().getWindow()).getIcons().add(new Image("icons/edit_diff.png"));
         this.setTitle("Compare documents");
         this.setResizable(true);
@@ -111,7 +115,7 @@ public class CompareDialog extends Dialog<Void> {
             return generator.generateDiffRows(
                     Arrays.asList(text1.split("\\R")),
                     Arrays.asList(text2.split("\\R")));
-        });
+        }, diffExecutor);
 
         this.setOnShowing(event -> {
             diffFuture.thenAcceptAsync(rows -> {
@@ -0,0 +1,69 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Replaces every page of an index which does not project all attributes with the full items of the table
+ */
+public class FetchBackPageCursor<T> implements PageCursor<T> {
+
+    private final PageCursor<T> delegate;
+    private final Function<List<T>, CompletableFuture<List<T>>> fetcher;
+
+    /**
+     * @param fetcher reads the full items for the index items, in the same order
+     */
+    public FetchBackPageCursor(PageCursor<T> delegate, Function<List<T>, CompletableFuture<List<T>>> fetcher) {
+        this.delegate = delegate;
+        this.fetcher = fetcher;
+    }
+
+    @Override
+    public CompletableFuture<Optional<Page<T>>> next() {
+        return delegate.next().thenCompose(page -> {
+            if (page.isEmpty() || page.get().items().isEmpty()) {
+                return CompletableFuture.completedFuture(page);
+            }
+            return fetcher.apply(page.get().items())
+                    .thenApply(items -> Optional.of(new Page.Builder<T>()
+                            .items(items)
+                            .lastEvaluatedKey(page.get().lastEvaluatedKey())
+                            .count(page.get().count())
+                            .scannedCount(page.get().scannedCount())
+                            .consumedCapacity(page.get().consumedCapacity())
+                            .build()));
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public void cancel() {
+        delegate.cancel();
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.collections.FXCollections;
+import javafx.scene.control.*;
+import javafx.scene.image.Image;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Pair;
+import javafx.util.StringConverter;
+import ua.org.java.dynamoit.components.tablegrid.highlight.Highlighter.ValueComparator;
+import ua.org.java.dynamoit.utils.DX;
+
+/**
+ * Asks for the comparator and the value of a highlighting rule, the value is validated by compiling the rule
+ */
+public class HighlightRuleDialog extends Dialog<Pair<ValueComparator, String>> {
+
+    public HighlightRuleDialog(String attribute, String value) {
+        ComboBox<ValueComparator> comparatorBox = new ComboBox<>(FXCollections.observableArrayList(ValueComparator.values()));
+        TextField valueField = new TextField(value);
+
+        StringBinding error = Bindings.createStringBinding(() -> {
+            try {
+                comparatorBox.getValue().compile(valueField.getText());
+                return "";
+            } catch (IllegalArgumentException e) {
+                return e.getMessage() != null ? e.getMessage() : "Invalid value";
+            }
+        }, comparatorBox.valueProperty(), valueField.textProperty());
+
+        setTitle("Highlight " + attribute);
+        ((Stage) this.getDialogPane().getScene().getWindow()).getIcons().add(new Image("icons/color_swatches.png"));
+        getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        getDialogPane().setContent(DX.create(VBox::new, vBox -> {
+            vBox.setSpacing(7);
+            vBox.setPrefWidth(350);
+            vBox.getChildren().addAll(
+                    DX.create(() -> comparatorBox, comboBox -> {
+                        comboBox.setMaxWidth(Double.MAX_VALUE);
+                        comboBox.setConverter(new StringConverter<>() {
+                            @Override
+                            public String toString(ValueComparator comparator) {
+                                return comparator == null ? "" : comparator.getTitle();
+                            }
+
+                            @Override
+                            public ValueComparator fromString(String string) {
+                                return null;
+                            }
+                        });
+                        comboBox.getSelectionModel().select(ValueComparator.PREFIX);
+                    }),
+                    DX.create(() -> valueField, textField -> textField.setPromptText("Value, regular expression or range 10..20")),
+                    DX.create(Label::new, label -> {
+                        label.textProperty().bind(error);
+                        label.setWrapText(true);
+                    })
+            );
+        }));
+
+        getDialogPane().lookupButton(ButtonType.OK).disableProperty().bind(error.isNotEmpty());
+
+        setResultConverter(buttonType -> {
+            if (buttonType == ButtonType.OK) {
+                return new Pair<>(comparatorBox.getValue(), valueField.getText());
+            }
+            return null;
+        });
+    }
+
+}
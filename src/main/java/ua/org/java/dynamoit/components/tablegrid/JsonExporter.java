@@ -0,0 +1,168 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import ua.org.java.dynamoit.utils.DocumentJson;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes pages into a json array file. The next pages are fetched by a separate task
+ * while the current one is written, only a couple of pages are held in memory.
+ */
+public class JsonExporter {
+
+    private static final int PREFETCH_PAGES = 2;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Iterable<Page<EnhancedDocument>> pages;
+    private final Executor fetchExecutor;
+    private final TransferProgress progress;
+    private final Runnable onProgress;
+
+    private final BlockingQueue<Page<EnhancedDocument>> queue = new ArrayBlockingQueue<>(PREFETCH_PAGES);
+    private final Page<EnhancedDocument> endOfPages = Page.builder(EnhancedDocument.class).items(List.of()).build();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicReference<Throwable> fetchError = new AtomicReference<>();
+
+    /**
+     * @param pages         pages to write
+     * @param fetchExecutor runs the task which waits for the next pages
+     * @param progress   counters updated on every page, the export stops as soon as it is cancelled
+     * @param onProgress called after a page is written
+     */
+    public JsonExporter(Iterable<Page<EnhancedDocument>> pages, Executor fetchExecutor, TransferProgress progress, Runnable onProgress) {
+        this.pages = pages;
+        this.fetchExecutor = fetchExecutor;
+        this.progress = progress;
+        this.onProgress = onProgress;
+    }
+
+    /**
+     * @param path destination file
+     * @return false if the export has been cancelled, the incomplete file is removed in that case
+     * @throws IOException if the pages can't be fetched, the incomplete file is removed as well
+     */
+    public boolean export(Path path) throws IOException, InterruptedException {
+        CompletableFuture<Void> fetching = CompletableFuture.runAsync(this::fetchPages, fetchExecutor);
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(path))), JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            while (!progress.isCancelled()) {
+                Page<EnhancedDocument> page = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (page == null) {
+                    continue;
+                }
+                if (page == endOfPages) {
+                    break;
+                }
+                for (EnhancedDocument document : page.items()) {
+                    DocumentJson.writeItem(generator, document.toMap());
+                }
+                generator.flush();
+                progress.addItems(page.items().size());
+                onProgress.run();
+            }
+            generator.writeEndArray();
+        } finally {
+            stopped.set(true);
+            queue.clear();
+            fetching.join();
+        }
+
+        if (fetchError.get() != null) {
+            // the closed array would look like a complete export
+            Files.deleteIfExists(path);
+            throw new IOException("Can't fetch data", fetchError.get());
+        }
+        if (progress.isCancelled()) {
+            Files.deleteIfExists(path);
+            return false;
+        }
+        return true;
+    }
+
+    private void fetchPages() {
+        try {
+            for (Page<EnhancedDocument> page : pages) {
+                if (!offer(page)) {
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            fetchError.set(e);
+        }
+        offer(endOfPages);
+    }
+
+    /**
+     * Wait for a free slot in the queue until the writer stops
+     *
+     * @return false if the writer has stopped
+     */
+    private boolean offer(Page<EnhancedDocument> page) {
+        try {
+            while (!stopped.get() && !progress.isCancelled()) {
+                if (queue.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private class CountingOutputStream extends FilterOutputStream {
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            progress.addBytes(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            progress.addBytes(len);
+        }
+    }
+
+}
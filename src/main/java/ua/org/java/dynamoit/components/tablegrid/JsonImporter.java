@@ -0,0 +1,126 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import ua.org.java.dynamoit.utils.DocumentJson;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a json array file element by element and passes documents to the writer in fixed size batches,
+ * so only one batch is held in memory.
+ */
+public class JsonImporter {
+
+    /**
+     * Maximum number of documents passed to the writer at once
+     */
+    public static final int IMPORT_BATCH_SIZE = 1000;
+
+    /**
+     * Position in the file where an interrupted import can be continued
+     *
+     * @param file   imported file
+     * @param offset number of array elements which are already saved
+     */
+    public record Checkpoint(Path file, long offset) {
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Consumer<List<EnhancedDocument>> writer;
+    private final TransferProgress progress;
+    private final Runnable onProgress;
+    private volatile long offset;
+
+    /**
+     * @param writer     saves a batch of documents, the next batch is read only when the previous is saved
+     * @param progress   counters updated on every batch, the import stops as soon as it is cancelled
+     * @param onProgress called after a batch is saved
+     */
+    public JsonImporter(Consumer<List<EnhancedDocument>> writer, TransferProgress progress, Runnable onProgress) {
+        this.writer = writer;
+        this.progress = progress;
+        this.onProgress = onProgress;
+    }
+
+    /**
+     * @param path      json file with array of documents
+     * @param skipItems number of elements to skip from the beginning of the array
+     */
+    public void importFrom(Path path, long skipItems) throws IOException {
+        offset = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Json array of documents is expected");
+            }
+
+            List<EnhancedDocument> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            long index = 0;
+            long bytes = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY && !progress.isCancelled()) {
+                if (index++ < skipItems) {
+                    parser.skipChildren();
+                    offset = index;
+                    bytes = parser.currentLocation().getByteOffset();
+                    continue;
+                }
+
+                batch.add(EnhancedDocument.fromAttributeValueMap(DocumentJson.readItem(parser)));
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    bytes = write(batch, parser, bytes);
+                }
+            }
+            if (!batch.isEmpty() && !progress.isCancelled()) {
+                write(batch, parser, bytes);
+            }
+        }
+    }
+
+    /**
+     * @return number of array elements which are saved or skipped
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    private long write(List<EnhancedDocument> batch, JsonParser parser, long bytes) {
+        writer.accept(List.copyOf(batch));
+
+        offset += batch.size();
+        progress.addItems(batch.size());
+        long position = parser.currentLocation().getByteOffset();
+        progress.addBytes(position - bytes);
+        onProgress.run();
+
+        batch.clear();
+        return position;
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking source of pages, the next page is requested only when it is asked for
+ *
+ * @param <T> type of items
+ */
+public interface PageCursor<T> {
+
+    /**
+     * @return the next page or empty if there are no more pages
+     */
+    CompletableFuture<Optional<Page<T>>> next();
+
+    /**
+     * @return false if it is known that there are no more pages
+     */
+    boolean hasNext();
+
+    /**
+     * Stop reading, pages which are not received yet are completed as empty
+     */
+    void cancel();
+
+    /**
+     * Read pages until at least the given number of items is received or the pages are over
+     */
+    default CompletableFuture<List<T>> nextItems(int minItems) {
+        return nextItems(new ArrayList<>(minItems), minItems);
+    }
+
+    private CompletableFuture<List<T>> nextItems(List<T> items, int minItems) {
+        return next().thenCompose(page -> {
+            page.ifPresent(p -> items.addAll(p.items()));
+            if (page.isEmpty() || items.size() >= minItems || !hasNext()) {
+                return CompletableFuture.completedFuture(items);
+            }
+            return nextItems(items, minItems);
+        });
+    }
+
+    /**
+     * @return iterator which waits for every page, for the readers which have their own thread
+     */
+    default Iterator<Page<T>> blockingIterator() {
+        return new Iterator<>() {
+            private Optional<Page<T>> nextPage;
+
+            @Override
+            public boolean hasNext() {
+                if (nextPage == null) {
+                    nextPage = PageCursor.this.next().join();
+                }
+                return nextPage.isPresent();
+            }
+
+            @Override
+            public Page<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Page<T> page = nextPage.get();
+                nextPage = null;
+                return page;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads pages ahead of the consumer. {@link #prefetch()} requests pages in the background
+ * until the given number of pages is requested or the received pages hold enough items,
+ * {@link #next()} hands them out in order.
+ */
+public class PrefetchingPageCursor<T> implements PageCursor<T> {
+
+    private final PageCursor<T> delegate;
+    private final int maxPages;
+    private final int maxItems;
+    private final Deque<CompletableFuture<Optional<Page<T>>>> ahead = new ArrayDeque<>();
+    private boolean cancelled;
+
+    /**
+     * @param maxPages maximum number of pages requested ahead
+     * @param maxItems prefetching stops when the received pages hold this number of items
+     */
+    public PrefetchingPageCursor(PageCursor<T> delegate, int maxPages, int maxItems) {
+        this.delegate = delegate;
+        this.maxPages = maxPages;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Request pages up to the limits, does nothing if the buffer is full already
+     */
+    public synchronized void prefetch() {
+        while (!cancelled && ahead.size() < maxPages && bufferedItems() < maxItems && delegate.hasNext()) {
+            ahead.addLast(delegate.next());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Optional<Page<T>>> next() {
+        synchronized (this) {
+            if (!ahead.isEmpty()) {
+                return ahead.pollFirst();
+            }
+        }
+        return delegate.next();
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        return !cancelled && (!ahead.isEmpty() || delegate.hasNext());
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (this) {
+            cancelled = true;
+            ahead.clear();
+        }
+        delegate.cancel();
+    }
+
+    /**
+     * @return number of items in the pages which are received but not read yet
+     */
+    synchronized int bufferedItems() {
+        return ahead.stream()
+                .filter(page -> page.isDone() && !page.isCompletedExceptionally())
+                .mapToInt(page -> page.join().map(p -> p.items().size()).orElse(0))
+                .sum();
+    }
+
+    synchronized int requestedPages() {
+        return ahead.size();
+    }
+
+}
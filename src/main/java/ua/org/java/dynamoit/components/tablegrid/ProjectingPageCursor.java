@@ -0,0 +1,128 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Cursor over the pages of one query or scan whose projection can be widened while it is read.
+ * When the projection has changed the request is opened again from the last evaluated key,
+ * so the next pages have the new attributes and the pages which have been read are not read again.
+ * <p>
+ * A page is requested only when the previous one has arrived, the request goes on from its key.
+ */
+public class ProjectingPageCursor<T> implements PageCursor<T> {
+
+    private final Supplier<Set<String>> projection;
+    private final BiFunction<Set<String>, Map<String, AttributeValue>, PageCursor<T>> opener;
+    private final BiConsumer<List<T>, Set<String>> pageListener;
+    private PageCursor<T> delegate;
+    private Set<String> openedWith;
+    private boolean received;
+    private Map<String, AttributeValue> lastEvaluatedKey;
+    private CompletableFuture<?> previous = CompletableFuture.completedFuture(null);
+    private boolean cancelled;
+
+    /**
+     * @param projection   attributes to read, taken again for every page
+     * @param opener       opens the request with the projection from the exclusive start key, null to read from the beginning
+     * @param pageListener receives the items of every page with the projection they have been read with
+     */
+    public ProjectingPageCursor(Supplier<Set<String>> projection,
+                                BiFunction<Set<String>, Map<String, AttributeValue>, PageCursor<T>> opener,
+                                BiConsumer<List<T>, Set<String>> pageListener) {
+        this.projection = projection;
+        this.opener = opener;
+        this.pageListener = pageListener;
+        this.openedWith = projection.get();
+        this.delegate = opener.apply(openedWith, null);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Page<T>>> next() {
+        CompletableFuture<Optional<Page<T>>> page = new CompletableFuture<>();
+        CompletableFuture<?> before;
+        synchronized (this) {
+            before = previous;
+            previous = page;
+        }
+        // the next page is requested outside the lock, its callbacks can ask for the next page
+        before.handle((aPage, throwable) -> null)
+                .thenCompose(aVoid -> nextPage())
+                .whenComplete((nextPage, throwable) -> {
+                    if (throwable != null) {
+                        page.completeExceptionally(throwable);
+                    } else {
+                        page.complete(nextPage);
+                    }
+                });
+        return page;
+    }
+
+    private CompletableFuture<Optional<Page<T>>> nextPage() {
+        PageCursor<T> cursor;
+        Set<String> readWith;
+        synchronized (this) {
+            Set<String> current = projection.get();
+            // a page without the key is the last one, the request is over
+            boolean more = !received || (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty());
+            if (!cancelled && more && !current.equals(openedWith)) {
+                delegate.cancel();
+                openedWith = current;
+                delegate = opener.apply(current, lastEvaluatedKey);
+            }
+            cursor = delegate;
+            readWith = openedWith;
+        }
+        return cursor.next().thenApply(page -> {
+            page.ifPresent(p -> {
+                synchronized (this) {
+                    received = true;
+                    lastEvaluatedKey = p.lastEvaluatedKey();
+                }
+                pageListener.accept(p.items(), readWith);
+            });
+            return page;
+        });
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        return delegate.hasNext();
+    }
+
+    @Override
+    public void cancel() {
+        PageCursor<T> cursor;
+        synchronized (this) {
+            cancelled = true;
+            cursor = delegate;
+        }
+        cursor.cancel();
+    }
+
+}
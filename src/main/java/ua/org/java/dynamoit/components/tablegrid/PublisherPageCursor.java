@@ -0,0 +1,110 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cursor over the pages of an async query or scan, every {@link #next()} requests one page from the publisher
+ */
+public class PublisherPageCursor<T> implements PageCursor<T>, Subscriber<Page<T>> {
+
+    private final CompletableFuture<Subscription> subscription = new CompletableFuture<>();
+    private final Deque<CompletableFuture<Optional<Page<T>>>> waiting = new ArrayDeque<>();
+    private boolean finished;
+    private Throwable error;
+
+    public PublisherPageCursor(Publisher<Page<T>> publisher) {
+        publisher.subscribe(this);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Page<T>>> next() {
+        CompletableFuture<Optional<Page<T>>> page = new CompletableFuture<>();
+        synchronized (this) {
+            if (error != null) {
+                return CompletableFuture.failedFuture(error);
+            }
+            if (finished) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            waiting.addLast(page);
+        }
+        subscription.thenAccept(s -> s.request(1));
+        return page;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        return !finished;
+    }
+
+    @Override
+    public void cancel() {
+        subscription.thenAccept(Subscription::cancel);
+        onComplete();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription.complete(subscription);
+    }
+
+    @Override
+    public void onNext(Page<T> page) {
+        CompletableFuture<Optional<Page<T>>> future;
+        synchronized (this) {
+            future = waiting.pollFirst();
+        }
+        if (future != null) {
+            future.complete(Optional.of(page));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        for (CompletableFuture<Optional<Page<T>>> future : finish(throwable)) {
+            future.completeExceptionally(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        for (CompletableFuture<Optional<Page<T>>> future : finish(null)) {
+            future.complete(Optional.empty());
+        }
+    }
+
+    private synchronized Deque<CompletableFuture<Optional<Page<T>>>> finish(Throwable throwable) {
+        if (!finished) {
+            finished = true;
+            error = throwable;
+        }
+        Deque<CompletableFuture<Optional<Page<T>>>> futures = new ArrayDeque<>(waiting);
+        waiting.clear();
+        return futures;
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cancellation token of one data load of a tab. A new load or closing the tab cancels the previous token,
+ * the cursors registered with it stop reading at the next page boundary.
+ */
+public class QueryToken {
+
+    private final long generation;
+    private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    public QueryToken(long generation) {
+        this.generation = generation;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the load is superseded
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Query generation " + generation + " is cancelled");
+        }
+    }
+
+    /**
+     * @param listener releases resources of the load, called at once if the token is cancelled already
+     */
+    public void onCancel(Runnable listener) {
+        cancelListeners.add(listener);
+        if (cancelled && cancelListeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        for (Runnable listener : cancelListeners) {
+            if (cancelListeners.remove(listener)) {
+                listener.run();
+            }
+        }
+    }
+
+}
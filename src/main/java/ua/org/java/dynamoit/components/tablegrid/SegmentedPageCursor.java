@@ -0,0 +1,163 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Merges pages of a parallel scan. Every segment keeps one page requested or waiting to be read,
+ * so up to N pages are fetched simultaneously and returned in the order they arrive.
+ */
+public class SegmentedPageCursor<T> implements PageCursor<T> {
+
+    public record SegmentProgress(int segment, long scannedItems, boolean finished) {
+    }
+
+    private record SegmentPage<T>(int segment, Page<T> page) {
+    }
+
+    private final List<PageCursor<T>> segments;
+    private final Consumer<SegmentProgress> progressListener;
+    private final Deque<SegmentPage<T>> arrived = new ArrayDeque<>();
+    private final Deque<CompletableFuture<Optional<Page<T>>>> waiting = new ArrayDeque<>();
+    private final boolean[] requested;
+    private final boolean[] finished;
+    private final long[] scannedItems;
+    private boolean cancelled;
+    private Throwable error;
+
+    public SegmentedPageCursor(List<PageCursor<T>> segments, Consumer<SegmentProgress> progressListener) {
+        this.segments = segments;
+        this.progressListener = progressListener;
+        this.requested = new boolean[segments.size()];
+        this.finished = new boolean[segments.size()];
+        this.scannedItems = new long[segments.size()];
+    }
+
+    @Override
+    public CompletableFuture<Optional<Page<T>>> next() {
+        CompletableFuture<Optional<Page<T>>> page = new CompletableFuture<>();
+        List<Runnable> actions;
+        synchronized (this) {
+            if (error != null) {
+                return CompletableFuture.failedFuture(error);
+            }
+            waiting.addLast(page);
+            actions = dispatch();
+        }
+        // futures are completed outside the lock, their callbacks can ask for the next page
+        actions.forEach(Runnable::run);
+        return page;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        return error == null && !cancelled && !isExhausted();
+    }
+
+    @Override
+    public void cancel() {
+        List<CompletableFuture<Optional<Page<T>>>> futures;
+        synchronized (this) {
+            cancelled = true;
+            futures = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        segments.forEach(PageCursor::cancel);
+        futures.forEach(future -> future.complete(Optional.empty()));
+    }
+
+    private void request(int segment) {
+        segments.get(segment).next().whenComplete((page, throwable) -> onSegmentPage(segment, page, throwable));
+    }
+
+    private void onSegmentPage(int segment, Optional<Page<T>> page, Throwable throwable) {
+        List<Runnable> actions;
+        SegmentProgress progress = null;
+        synchronized (this) {
+            if (throwable != null) {
+                error = throwable;
+                List<CompletableFuture<Optional<Page<T>>>> futures = new ArrayList<>(waiting);
+                waiting.clear();
+                actions = futures.stream().<Runnable>map(future -> () -> future.completeExceptionally(throwable)).toList();
+            } else {
+                if (page.isPresent()) {
+                    scannedItems[segment] += page.get().items().size();
+                    arrived.addLast(new SegmentPage<>(segment, page.get()));
+                    finished[segment] = !segments.get(segment).hasNext();
+                } else {
+                    requested[segment] = false;
+                    finished[segment] = true;
+                }
+                progress = new SegmentProgress(segment, scannedItems[segment], finished[segment]);
+                actions = dispatch();
+            }
+        }
+        if (progress != null) {
+            progressListener.accept(progress);
+        }
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Hands arrived pages to the waiting readers and requests the next page of every idle segment
+     *
+     * @return completions and requests to run outside the lock
+     */
+    private List<Runnable> dispatch() {
+        List<Runnable> actions = new ArrayList<>();
+        while (!waiting.isEmpty() && !arrived.isEmpty()) {
+            CompletableFuture<Optional<Page<T>>> future = waiting.pollFirst();
+            SegmentPage<T> segmentPage = arrived.pollFirst();
+            requested[segmentPage.segment()] = false;
+            actions.add(() -> future.complete(Optional.of(segmentPage.page())));
+        }
+
+        if (cancelled || isExhausted()) {
+            List<CompletableFuture<Optional<Page<T>>>> futures = new ArrayList<>(waiting);
+            waiting.clear();
+            futures.forEach(future -> actions.add(() -> future.complete(Optional.empty())));
+            return actions;
+        }
+
+        for (int i = 0; i < segments.size(); i++) {
+            if (!requested[i] && !finished[i]) {
+                requested[i] = true;
+                int segment = i;
+                actions.add(() -> request(segment));
+            }
+        }
+        return actions;
+    }
+
+    private boolean isExhausted() {
+        if (!arrived.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            if (!finished[i] || requested[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
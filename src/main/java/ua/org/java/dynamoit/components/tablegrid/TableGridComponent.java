@@ -24,6 +24,7 @@ import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.main.MainModel;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.db.DynamoDBModule;
+import ua.org.java.dynamoit.utils.AppExecutors;
 
 import javax.inject.Singleton;
 
@@ -48,6 +49,8 @@ public interface TableGridComponent {
         Builder hostServices(HostServices hostServices);
         @BindsInstance
         Builder themeManager(ThemeManager themeManager);
+        @BindsInstance
+        Builder executors(AppExecutors executors);
 
         TableGridComponent build();
     }
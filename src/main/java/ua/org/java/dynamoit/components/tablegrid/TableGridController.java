@@ -17,45 +17,50 @@
 
 package ua.org.java.dynamoit.components.tablegrid;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import javafx.application.HostServices;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.util.Pair;
 import org.reactfx.EventStream;
-import software.amazon.awssdk.core.pagination.sync.SdkIterable;
 import software.amazon.awssdk.enhanced.dynamodb.*;
 import software.amazon.awssdk.enhanced.dynamodb.document.DocumentTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
-import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
 import software.amazon.awssdk.services.dynamodb.model.*;
 import software.amazon.awssdk.utils.StringUtils;
 import ua.org.java.dynamoit.EventBus;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterParser;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterSyntaxException;
+import ua.org.java.dynamoit.components.tablegrid.parser.expression.CompiledFilter;
+import ua.org.java.dynamoit.components.tablegrid.parser.expression.DocumentFilter;
 import ua.org.java.dynamoit.components.tablegrid.parser.expression.FilterExpressionBuilder;
+import ua.org.java.dynamoit.components.tablegrid.planner.QueryPlan;
+import ua.org.java.dynamoit.components.tablegrid.planner.QueryPlanner;
+import ua.org.java.dynamoit.components.tablegrid.store.RowStore;
+import ua.org.java.dynamoit.components.tablegrid.store.StoredDocument;
 import ua.org.java.dynamoit.model.TableDef;
+import ua.org.java.dynamoit.services.BatchWriteSummary;
+import ua.org.java.dynamoit.services.BatchWriter;
 import ua.org.java.dynamoit.services.DynamoDbTableService;
+import ua.org.java.dynamoit.utils.AppExecutors;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.IntStream;
 
 import static java.util.concurrent.CompletableFuture.runAsync;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
@@ -71,33 +76,61 @@ public class TableGridController {
      */
     private static final int PAGE_SIZE = 100;
 
+    /**
+     * Share of the scrolled rows after which the next pages are read ahead, dynamoit.prefetch.threshold system property
+     */
+    public static final double PREFETCH_THRESHOLD = Double.parseDouble(System.getProperty("dynamoit.prefetch.threshold", "0.7"));
+
+    /**
+     * Maximum number of pages read ahead, dynamoit.prefetch.pages system property
+     */
+    private static final int PREFETCH_PAGES = Integer.getInteger("dynamoit.prefetch.pages", 3);
+
+    /**
+     * Maximum number of items held in the pages read ahead
+     */
+    private static final int PREFETCH_MAX_ITEMS = Integer.getInteger("dynamoit.prefetch.items", 1000);
+
     /**
      * Maximum number of items for one batch put request
      */
     private static final int BATCH_SIZE = 25;
 
-    private DynamoDbTable<EnhancedDocument> table;
+    /**
+     * Maximum number of keys for one batch get request
+     */
+    private static final int BATCH_GET_SIZE = 100;
+
+    private DynamoDbAsyncTable<EnhancedDocument> table;
     private final TableGridContext context;
     private final TableGridModel tableModel;
     private final DynamoDbTableService dynamoDbTableService;
     private final EventBus eventBus;
     private final Executor uiExecutor;
+    private final AppExecutors executors;
     private final HostServices hostServices;
-    private final DynamoDbEnhancedClient documentClient;
+    private final DynamoDbEnhancedAsyncClient documentClient;
+    private CompletableFuture<Void> initialization = CompletableFuture.completedFuture(null);
+    private final AtomicLong queryGenerations = new AtomicLong();
+    private final AtomicLong localFilterGenerations = new AtomicLong();
+    private volatile QueryToken currentQuery = new QueryToken(0);
+    private volatile boolean closed;
 
     public TableGridController(TableGridContext context,
                                TableGridModel tableModel,
                                DynamoDbTableService dynamoDbTableService,
                                EventBus eventBus,
                                Executor uiExecutor,
+                               AppExecutors executors,
                                HostServices hostServices,
-                               DynamoDbEnhancedClient documentClient
+                               DynamoDbEnhancedAsyncClient documentClient
     ) {
         this.context = context;
         this.tableModel = tableModel;
         this.dynamoDbTableService = dynamoDbTableService;
         this.eventBus = eventBus;
         this.uiExecutor = uiExecutor;
+        this.executors = executors;
         this.hostServices = hostServices;
         this.documentClient = documentClient;
 
@@ -111,43 +144,168 @@ public class TableGridController {
     }
 
     public void init() {
-        eventBus.activity(
+        QueryToken query = startQuery();
+        initialization = eventBus.activity(
                 supplyAsync(() -> {
                     if (tableModel.getOriginalTableDescription() == null) {
-                        return supplyAsync(dynamoDbTableService::getTableDescription)
+                        return supplyAsync(dynamoDbTableService::getTableDescription, executors.io())
                                 .thenAcceptAsync(this::bindToModel, uiExecutor);
                     } else {
                         bindToModel(tableModel.getTableDef());
                         return CompletableFuture.completedFuture(Boolean.TRUE);
                     }
-                })
+                }, executors.cpu())
                         .thenCompose(__ -> __)
                         .thenRun(this::applyContext)
-                        .thenCompose(__ -> queryPageItems())
-                        .thenAcceptAsync(this::bindToModel, uiExecutor)
+                        .thenCompose(__ -> queryPageItems(query))
+                        .thenAcceptAsync(pair -> bindToModel(pair, query), uiExecutor)
         );
     }
 
+    /**
+     * The tab is closed, stop loading data and running transfers
+     */
+    public void onClose() {
+        closed = true;
+        currentQuery.cancel();
+        onCancelTransfer();
+    }
+
+    /**
+     * The rows are scrolled past the threshold, read the next pages in the background
+     */
+    public void onPrefetch() {
+        PrefetchingPageCursor<EnhancedDocument> pageCursor = tableModel.getPageCursor();
+        if (pageCursor != null) {
+            pageCursor.prefetch();
+        }
+    }
+
     public void onReachScrollEnd() {
-        if (tableModel.getPageIterator().hasNext()) {
+        QueryToken query = currentQuery;
+        RowStore rowStore = tableModel.getRowStore();
+        PrefetchingPageCursor<EnhancedDocument> pageCursor = tableModel.getPageCursor();
+        if (pageCursor != null && pageCursor.hasNext()) {
             eventBus.activity(
-                    supplyAsync(tableModel::getPageIterator)
-                            .thenApply(TableGridController::iteratePage)
-                            .thenAcceptAsync(pair -> {
-                                tableModel.getTableDef().getAttributeTypesMap().putAll(defineAttributesTypes(pair.getKey()));
-                                tableModel.getRows().addAll(pair.getKey());
+                    pageCursor.nextItems(PAGE_SIZE)
+                            .thenComposeAsync(items -> RowStore.prepare(items, rowStore::receivedProjection, tableModel.getSchema(), executors.cpu()), executors.cpu())
+                            .thenAcceptAsync(page -> {
+                                // the data has been refreshed meanwhile
+                                if (query.isCancelled()) {
+                                    return;
+                                }
+                                tableModel.getTableDef().getAttributeTypesMap().putAll(schemaChanges(page));
+                                addRows(rowStore, page);
                             }, uiExecutor)
             );
         }
     }
 
     public CompletableFuture<Void> onRefreshData() {
+        QueryToken query = startQuery();
+        // the table is known and the first page is shown only after the initialization
         return eventBus.activity(
-                runAsync(() -> tableModel.getRows().clear(), uiExecutor)
-                        .thenComposeAsync(aVoid -> queryPageItems().thenAcceptAsync(this::bindToModel, uiExecutor))
+                initialization.exceptionally(throwable -> null)
+                        .thenRunAsync(() -> {
+                            query.throwIfCancelled();
+                            tableModel.setPageCursor(null);
+                            // the table is read with the same filters, the new rows don't need to be narrowed
+                            localFilterGenerations.incrementAndGet();
+                            tableModel.getFilteredRows().setPredicate(null);
+                            tableModel.getRows().clear();
+                            // the rows of the previous load keep their own store, e.g. in an open dialog
+                            tableModel.setRowStore(new RowStore(projectedAttributes()));
+                        }, uiExecutor)
+                        .thenCompose(aVoid -> queryPageItems(query))
+                        .thenAcceptAsync(pair -> bindToModel(pair, query), uiExecutor)
         );
     }
 
+    /**
+     * The columns in the viewport have changed. In the projection mode the columns which came into view are added
+     * to the projection, the loaded rows read them by their keys and the next pages are read with them
+     */
+    public CompletableFuture<Void> onVisibleAttributesChanged(List<String> visibleAttributes) {
+        tableModel.setVisibleAttributes(visibleAttributes);
+        RowStore rowStore = tableModel.getRowStore();
+        if (!rowStore.isProjected() || rowStore.getProjection().containsAll(visibleAttributes)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        rowStore.addProjection(visibleAttributes);
+        return readUnread(rowStore, tableModel.getRows());
+    }
+
+    /**
+     * @return false if a filtered attribute has not been read in the projection mode, the loaded rows can't be narrowed by it
+     */
+    public boolean isLocalFilterApplicable() {
+        RowStore rowStore = tableModel.getRowStore();
+        return !rowStore.isProjected() || rowStore.getProjection().containsAll(filterValues().keySet());
+    }
+
+    /**
+     * Narrows the loaded rows with the filters without reading the table, big result sets are evaluated in parallel.
+     * The rows are kept as they are if a filtered attribute has not been read, see {@link #isLocalFilterApplicable()}
+     */
+    public CompletableFuture<Void> onApplyLocalFilter() {
+        long generation = localFilterGenerations.incrementAndGet();
+        if (!isLocalFilterApplicable()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        DocumentFilter filter = DocumentFilter.of(filterValues(), attributeTypes());
+
+        List<EnhancedDocument> rows = List.copyOf(tableModel.getRows());
+        if (filter.isEmpty() || rows.size() < DocumentFilter.PARALLEL_THRESHOLD) {
+            return runAsync(() -> applyLocalFilter(generation, filter.isEmpty() ? null : filter), uiExecutor);
+        }
+        return eventBus.activity(
+                filter.evaluate(rows, executors.cpu())
+                        .thenAcceptAsync(predicate -> applyLocalFilter(generation, predicate), uiExecutor)
+        );
+    }
+
+    private void applyLocalFilter(long generation, Predicate<EnhancedDocument> predicate) {
+        // a newer filter has been applied meanwhile
+        if (generation == localFilterGenerations.get()) {
+            tableModel.getFilteredRows().setPredicate(predicate);
+        }
+    }
+
+    /**
+     * Cancel the current data load and start a new generation
+     */
+    private QueryToken startQuery() {
+        QueryToken query = new QueryToken(queryGenerations.incrementAndGet());
+        QueryToken previous = currentQuery;
+        currentQuery = query;
+        previous.cancel();
+        if (closed) {
+            query.cancel();
+        }
+        LOG.fine(() -> String.format("Query generation %d of %s", query.getGeneration(), context.tableName()));
+        return query;
+    }
+
+    /**
+     * Parses the filter on every keystroke, the compiled filter is cached for the next data load
+     *
+     * @return description of the syntax error if the filter is matched as a plain value,
+     * or a hint if the loaded rows can't be narrowed by the attribute
+     */
+    public Optional<String> validateFilter(String attribute, String filter) {
+        CompiledFilter.of(filter, tableModel.getTableDef().getAttributeTypesMap().get(attribute));
+        RowStore rowStore = tableModel.getRowStore();
+        if (tableModel.isLocalFilter() && rowStore.isProjected() && StringUtils.isNotBlank(filter) && !rowStore.getProjection().contains(attribute)) {
+            return Optional.of("The column has not been read in the projection mode, press Enter to read the table with the filter");
+        }
+        try {
+            FilterParser.parse(filter);
+            return Optional.empty();
+        } catch (FilterSyntaxException e) {
+            return Optional.of("Matched as a plain value, " + e.getMessage());
+        }
+    }
+
     public EventStream<Boolean> validateItem(EventStream<String> textStream) {
         return validateItem(textStream, false);
     }
@@ -182,8 +340,10 @@ public class TableGridController {
 
     public void onDeleteItems(List<EnhancedDocument> items) {
         eventBus.activity(
-                delete(items).thenRun(this::onRefreshData)
-        );
+                delete(items).thenAccept(TableGridController::checkWritten),
+                "Not all items were deleted",
+                "Deleted items are removed from the table, delete the remaining items again."
+        ).whenComplete((v, throwable) -> onRefreshData());
     }
 
     public void onPatchItems(List<EnhancedDocument> items, String jsonPatch, boolean isRaw) {
@@ -192,120 +352,191 @@ public class TableGridController {
         );
     }
 
+    /**
+     * Rows loaded in the projection mode have only some attributes, the full item is read from the table
+     *
+     * @return the full item, the row itself if it's not projected or the item has been deleted meanwhile
+     */
+    public CompletableFuture<EnhancedDocument> onLoadFullItem(EnhancedDocument item) {
+        if (!(item instanceof StoredDocument row) || !row.isProjected()) {
+            return CompletableFuture.completedFuture(item);
+        }
+        return eventBus.activity(
+                table.getItem(tableKey(item)).thenApply(fullItem -> fullItem != null ? fullItem : item),
+                "Can't read the item",
+                "The row has been read with the visible columns only, the full item is needed to open it."
+        );
+    }
+
     public void onClearFilters() {
         tableModel.getAttributeFilterMap().values().forEach(simpleStringProperty -> simpleStringProperty.set(null));
-        onRefreshData();
+        if (tableModel.isLocalFilter()) {
+            onApplyLocalFilter();
+        } else {
+            onRefreshData();
+        }
     }
 
     public void onSaveToFile(File file) {
+        TransferProgress progress = startTransfer("Export");
         eventBus.activity(
-                executeQueryOrSearch().thenAccept(items -> {
-                    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
-                        JsonGenerator generator = new JsonFactory(new ObjectMapper()).createGenerator(writer);
-                        generator.writeStartArray();
-                        asStream(items).flatMap(page -> page.items().stream()).forEach(o -> {
+                // the export always writes the full items
+                openPageCursor(new RowStore())
+                        // the exporter waits for every page in its own thread
+                        .thenAcceptAsync(pageCursor -> {
                             try {
-                                generator.writeRawValue(o.toJson());
-                            } catch (IOException e) {
+                                new JsonExporter(pageCursor::blockingIterator, executors.io(), progress, () -> reportTransfer(progress)).export(file.toPath());
+                            } catch (Exception e) {
+                                LOG.log(Level.SEVERE, e.getMessage(), e);
                                 throw new RuntimeException(e);
+                            } finally {
+                                pageCursor.cancel();
                             }
-                        });
-                        generator.writeEndArray();
-                        generator.flush();
-                    } catch (Exception e) {
-                        LOG.log(Level.SEVERE, e.getMessage(), e);
-                        throw new RuntimeException(e);
-                    }
-                })
+                        }, executors.transfer())
+                        .whenCompleteAsync((__, throwable) -> finishTransfer(progress), uiExecutor),
+                "Can't save json data to the file",
+                file.getAbsolutePath()
         );
     }
 
+    public void onCancelTransfer() {
+        if (tableModel.getTransfer() != null) {
+            tableModel.getTransfer().cancel();
+        }
+    }
+
     public void onLoadFromFile(File file) {
+        onLoadFromFile(file, 0);
+    }
+
+    /**
+     * @param file      json file with array of documents
+     * @param skipItems number of documents already imported by an interrupted import of the same file
+     */
+    public void onLoadFromFile(File file, long skipItems) {
+        TransferProgress progress = startTransfer("Import");
+        BatchWriter batchWriter = dynamoDbTableService.getBatchWriter();
+        progress.setDetails(() -> String.format(", %.0f of %.0f WCU/s", batchWriter.getConsumedPerSecond(), batchWriter.getRateLimit()));
+        JsonImporter importer = new JsonImporter(documents -> checkWritten(dynamoDbTableService.save(documents)), progress, () -> reportTransfer(progress));
         eventBus.activity(
                 runAsync(() -> {
-                    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
-                        JsonNode root = new ObjectMapper().readTree(reader);
-                        List<EnhancedDocument> documents = StreamSupport.stream(Spliterators.spliteratorUnknownSize(root.elements(), Spliterator.ORDERED), false)
-                                .map(JsonNode::toString)
-                                .map(EnhancedDocument::fromJson)
-                                .toList();
-
-                        dynamoDbTableService.save(documents);
+                    try {
+                        importer.importFrom(file.toPath(), skipItems);
                     } catch (Exception e) {
                         LOG.log(Level.SEVERE, e.getMessage(), e);
-                        throw new RuntimeException(e);
+                        throw new RuntimeException("Import stopped after " + importer.getOffset() + " documents", e);
                     }
-                }),
+                }, executors.transfer()).whenCompleteAsync((__, throwable) -> {
+                    boolean interrupted = throwable != null || progress.isCancelled();
+                    tableModel.setImportCheckpoint(interrupted ? new JsonImporter.Checkpoint(file.toPath(), importer.getOffset()) : null);
+                    finishTransfer(progress);
+                }, uiExecutor),
                 "Can't load json data from the file",
-                "Data in the file is not properly formatted or does not correspond to the db schema."
+                "Data in the file is not properly formatted or does not correspond to the db schema. Load the same file again to continue the import."
         ).whenComplete((v, throwable) -> onRefreshData());
     }
 
+    private TransferProgress startTransfer(String operation) {
+        TransferProgress progress = new TransferProgress(operation);
+        tableModel.setTransfer(progress);
+        tableModel.setTransferStatus(progress.describe());
+        return progress;
+    }
+
+    private void reportTransfer(TransferProgress progress) {
+        if (progress.shouldReport()) {
+            uiExecutor.execute(() -> tableModel.setTransferStatus(progress.describe()));
+        }
+    }
+
+    private void finishTransfer(TransferProgress progress) {
+        LOG.info(() -> (progress.isCancelled() ? "Cancelled " : "Finished ") + progress.describe());
+        if (tableModel.getTransfer() == progress) {
+            tableModel.setTransfer(null);
+            tableModel.setTransferStatus(null);
+        }
+    }
+
     /**
-     * Iterate pages to get around PAGE_SIZE number of items if exist
+     * Read pages to get around PAGE_SIZE number of items if exist
      *
-     * @param pages iterator of pages
-     * @return list of items and next pages
+     * @return list of items and the cursor for the next pages
      */
-    private static Pair<List<EnhancedDocument>, Iterator<Page<EnhancedDocument>>> iteratePage(Iterator<Page<EnhancedDocument>> pages) {
-        List<EnhancedDocument> items = new ArrayList<>(PAGE_SIZE);
-        items.addAll(pages.next().items());
-
-        while (items.size() < PAGE_SIZE && pages.hasNext()) {
-            Page<EnhancedDocument> page = pages.next();
-            items.addAll(page.items());
-        }
-        return new Pair<>(items, pages);
+    CompletableFuture<Pair<RowStore.Page, PrefetchingPageCursor<EnhancedDocument>>> queryPageItems(QueryToken query) {
+        RowStore rowStore = tableModel.getRowStore();
+        return openPageCursor(rowStore)
+                .thenApply(pageCursor -> new PrefetchingPageCursor<>(pageCursor, PREFETCH_PAGES, PREFETCH_MAX_ITEMS))
+                .thenCompose(pageCursor -> {
+                    // pages stop being read as soon as the query is superseded
+                    query.onCancel(pageCursor::cancel);
+                    return pageCursor.nextItems(PAGE_SIZE)
+                            .thenComposeAsync(items -> RowStore.prepare(items, rowStore::receivedProjection, tableModel.getSchema(), executors.cpu()), executors.cpu())
+                            .thenApply(page -> new Pair<>(page, pageCursor));
+                });
     }
 
-    CompletableFuture<Pair<List<EnhancedDocument>, Iterator<Page<EnhancedDocument>>>> queryPageItems() {
-        return executeQueryOrSearch()
-                .thenApply(Iterable::iterator)
-                .thenApply(TableGridController::iteratePage);
+    /**
+     * @param rowStore store the items are read for, the full items are read if it has no projection
+     */
+    private CompletableFuture<PageCursor<EnhancedDocument>> openPageCursor(RowStore rowStore) {
+        try {
+            return CompletableFuture.completedFuture(executeQueryOrSearch(rowStore));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     // analyze what kind of request should be executed - query or scan
-    private CompletableFuture<SdkIterable<Page<EnhancedDocument>>> executeQueryOrSearch() {
-        // query table if hash attribute has filter
-        if (notBlankFilterValue(hash())) {
-            SimpleStringProperty hashValueProperty = tableModel.getAttributeFilterMap().get(hash());
-            // query if hash has eq operation only
-            if (FilterExpressionBuilder.isEqualExpression(hashValueProperty.get())) {
-                var queryRequest = buildQuerySpec(hash(), range(), tableModel.getAttributeFilterMap());
-                return queryTableItems(queryRequest);
-            }
-        } else if (!tableModel.getFullProjectionIndexes().isEmpty()) {
-            // find the first index that has hash and range attributes in the filters map
-            Optional<GlobalSecondaryIndexDescription> globalIndexOptional = tableModel.getFullProjectionIndexes().stream()
-                    .filter(__ -> __.keySchema().stream()
-                            .allMatch(key -> notBlankFilterValue(key.attributeName()))
-                    ).findFirst();
-
-            // or try to find at least global index with hash in the filters map
-            globalIndexOptional = globalIndexOptional.or(() -> tableModel.getFullProjectionIndexes().stream()
-                    .filter(__ -> lookUpKeyName(__.keySchema(), KeyType.HASH).map(this::notBlankFilterValue).orElse(false)).findFirst()
-            );
+    private PageCursor<EnhancedDocument> executeQueryOrSearch(RowStore rowStore) {
+        uiExecutor.execute(() -> tableModel.getSegmentsProgress().clear());
+
+        Map<String, String> filters = filterValues();
+        List<QueryPlan> candidates = new QueryPlanner(tableModel.getOriginalTableDescription()).candidates(filters);
+        QueryPlan plan = QueryPlanner.cheapest(candidates);
+        LOG.fine(() -> String.format("Plan for %1s: %2s", context.tableName(), plan.describe()));
+        uiExecutor.execute(() -> {
+            tableModel.setQueryPlan(plan);
+            tableModel.getQueryPlanCandidates().setAll(candidates);
+        });
 
-            if (globalIndexOptional.isPresent()) {
-                GlobalSecondaryIndexDescription indexDescription = globalIndexOptional.get();
+        if (plan.isScan()) {
+            return scanItems(tableModel.getAttributeFilterMap(), rowStore);
+        }
 
-                DynamoDbIndex<EnhancedDocument> index = table.index(indexDescription.indexName());
-                Optional<String> indexHash = lookUpKeyName(indexDescription.keySchema(), KeyType.HASH);
-                Optional<String> indexRange = lookUpKeyName(indexDescription.keySchema(), KeyType.RANGE);
+        QueryEnhancedRequest querySpec = buildQuerySpec(plan.hashName(), plan.rangeName(), tableModel.getAttributeFilterMap());
+        if (plan.indexName() == null) {
+            return follow(rowStore, (projection, startKey) -> queryTableItems(project(querySpec, projection, startKey)));
+        }
 
-                if (indexHash.isPresent()) {
-                    QueryEnhancedRequest querySpec = buildQuerySpec(indexHash.get(), indexRange.orElse(null), tableModel.getAttributeFilterMap());
-                    return queryIndexItems(querySpec, index);
-                }
-            }
+        DynamoDbAsyncIndex<EnhancedDocument> index = table.index(plan.indexName());
+        if (plan.fetchBack()) {
+            // the index doesn't have all attributes, read the full items from the table
+            return new FetchBackPageCursor<>(queryIndexItems(project(querySpec, rowStore.getProjection(), null), index), this::readFromTable);
+        }
+        if (!rowStore.isProjected()) {
+            // an index is read with its projected attributes by default, DynamoDB fetches the others of a local index
+            return queryIndexItems(querySpec.toBuilder().select(Select.ALL_ATTRIBUTES).build(), index);
         }
-        return scanItems(tableModel.getAttributeFilterMap());
+        return follow(rowStore, (projection, startKey) -> queryIndexItems(project(querySpec, projection, startKey), index));
     }
 
-    private CompletableFuture<Void> processItemAsync(String json, boolean isRaw, Consumer<EnhancedDocument> command) {
+    /**
+     * In the projection mode the request follows the projection of the store, the attributes which come into it
+     * are read on the next pages without reading the table from the beginning
+     *
+     * @param opener opens the request with the projection from the exclusive start key
+     */
+    private PageCursor<EnhancedDocument> follow(RowStore rowStore, BiFunction<Set<String>, Map<String, AttributeValue>, PageCursor<EnhancedDocument>> opener) {
+        if (!rowStore.isProjected()) {
+            return opener.apply(Set.of(), null);
+        }
+        return new ProjectingPageCursor<>(rowStore::getProjection, opener, rowStore::received);
+    }
+
+    private CompletableFuture<Void> processItemAsync(String json, boolean isRaw, Function<EnhancedDocument, CompletableFuture<?>> command) {
         try {
             EnhancedDocument item = isRaw ? rawJsonToItem(json) : EnhancedDocument.fromJson(json);
-            return runAsync(() -> command.accept(item));
+            return command.apply(item).thenApply(__ -> null);
         } catch (JsonProcessingException e) {
             return CompletableFuture.failedFuture(e);
         }
@@ -324,77 +555,237 @@ public class TableGridController {
             return CompletableFuture.completedFuture(null);
         }
 
-        return processItemAsync(jsonPatch, isRaw, patch -> items.forEach(item -> {
+        return processItemAsync(jsonPatch, isRaw, patch -> CompletableFuture.allOf(items.stream().map(item -> {
             Map<String, AttributeValue> valuesMap = new HashMap<>(patch.toMap());
             valuesMap.put(hash(), item.toMap().get(hash()));
             if (range() != null) {
                 valuesMap.put(hash(), item.toMap().get(range()));
             }
 
-            table.updateItem(EnhancedDocument.fromAttributeValueMap(valuesMap));
-        }));
+            return table.updateItem(EnhancedDocument.fromAttributeValueMap(valuesMap));
+        }).toArray(CompletableFuture[]::new)));
     }
 
-    private CompletableFuture<SdkIterable<Page<EnhancedDocument>>> scanItems(Map<String, SimpleStringProperty> attributeFilterMap) {
-        return supplyAsync(() -> {
-            ScanEnhancedRequest.Builder scanSpec = ScanEnhancedRequest.builder();
+    private PageCursor<EnhancedDocument> scanItems(Map<String, SimpleStringProperty> attributeFilterMap, RowStore rowStore) {
+        ScanEnhancedRequest.Builder scanSpec = ScanEnhancedRequest.builder();
 
-            if (!attributeFilterMap.isEmpty()) {
-                FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder();
-                attributeFilterMap.forEach((key, value) -> filterExpressionBuilder.addAttributeValue(key, value.getValue()));
+        if (!attributeFilterMap.isEmpty()) {
+            FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder(attributeTypes());
+            attributeFilterMap.forEach((key, value) -> filterExpressionBuilder.addAttributeValue(key, value.getValue()));
 
-                scanSpec.filterExpression(filterExpressionBuilder.build());
-            }
-            ScanEnhancedRequest enhancedRequest = scanSpec.limit(PAGE_SIZE).build();
+            scanSpec.filterExpression(filterExpressionBuilder.build());
+        }
+        scanSpec.limit(PAGE_SIZE);
 
-            LOG.fine(() -> String.format("Scan %1s = %2s", table.tableName(), logAsJson(enhancedRequest)));
+        int totalSegments = tableModel.getScanSegments();
+        if (totalSegments <= 1) {
+            ScanEnhancedRequest enhancedRequest = scanSpec.build();
+            return follow(rowStore, (projection, startKey) -> scan(project(enhancedRequest, projection, startKey)));
+        }
 
-            return table.scan(enhancedRequest);
-        });
+        return parallelScan(scanSpec, totalSegments, rowStore);
     }
 
-    private static QueryEnhancedRequest buildQuerySpec(String hashName, String rangeName, Map<String, SimpleStringProperty> attributeFilterMap) {
-        String hashValue = attributeFilterMap.get(hashName).get();
-        Key.Builder keyBuilder = Key.builder().partitionValue(hashValue);
+    private PageCursor<EnhancedDocument> scan(ScanEnhancedRequest enhancedRequest) {
+        LOG.fine(() -> String.format("Scan %1s = %2s", table.tableName(), logAsJson(enhancedRequest)));
+        return new PublisherPageCursor<>(table.scan(enhancedRequest));
+    }
 
-        if (rangeName != null && StringUtils.isNotBlank(attributeFilterMap.get(rangeName).get())) {
-            String sortValue = attributeFilterMap.get(rangeName).get();
-            keyBuilder.sortValue(sortValue);
+    /**
+     * Split the scan into segments which are read simultaneously
+     *
+     * @param scanSpec      request without segment settings
+     * @param totalSegments number of segments
+     * @return cursor of pages in the order they arrive from the segments
+     */
+    private PageCursor<EnhancedDocument> parallelScan(ScanEnhancedRequest.Builder scanSpec, int totalSegments, RowStore rowStore) {
+        List<PageCursor<EnhancedDocument>> segments = new ArrayList<>(totalSegments);
+        for (int segment = 0; segment < totalSegments; segment++) {
+            ScanEnhancedRequest enhancedRequest = scanSpec.segment(segment).totalSegments(totalSegments).build();
+            // every segment goes on from its own key when the projection is widened
+            segments.add(follow(rowStore, (projection, startKey) -> scan(project(enhancedRequest, projection, startKey))));
         }
 
+        uiExecutor.execute(() -> tableModel.getSegmentsProgress().setAll(
+                IntStream.range(0, totalSegments).mapToObj(segment -> new SegmentedPageCursor.SegmentProgress(segment, 0, false)).toList()
+        ));
+
+        return new SegmentedPageCursor<>(segments, progress -> uiExecutor.execute(() -> {
+            if (progress.segment() < tableModel.getSegmentsProgress().size()) {
+                tableModel.getSegmentsProgress().set(progress.segment(), progress);
+            }
+        }));
+    }
+
+    private QueryEnhancedRequest buildQuerySpec(String hashName, String rangeName, Map<String, SimpleStringProperty> attributeFilterMap) {
+        String hashValue = attributeFilterMap.get(hashName).get();
+        String rangeFilter = rangeName != null && attributeFilterMap.containsKey(rangeName) ? attributeFilterMap.get(rangeName).get() : null;
+
+        FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder(attributeTypes());
+
+        // the sort key filter goes to the key condition if possible, otherwise it filters the read items
+        Optional<QueryConditional> keyConditional = filterExpressionBuilder.keyConditional(hashName, hashValue, rangeName, rangeFilter);
+
         var attributesWithoutKeys = attributeFilterMap.entrySet().stream()
-                .filter(entry -> !entry.getKey().equals(hashName) && !entry.getKey().equals(rangeName))
+                .filter(entry -> !entry.getKey().equals(hashName))
+                .filter(entry -> !entry.getKey().equals(rangeName) || keyConditional.isEmpty())
                 .filter(entry -> StringUtils.isNotBlank(entry.getValue().get()))
                 .toList();
 
-        FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder();
-
         attributesWithoutKeys.forEach(entry -> filterExpressionBuilder.addAttributeValue(entry.getKey(), entry.getValue().getValue()));
 
         QueryEnhancedRequest.Builder querySpec = QueryEnhancedRequest.builder()
-                .queryConditional(QueryConditional.keyEqualTo(keyBuilder.build()))
+                .queryConditional(keyConditional.orElseGet(() -> filterExpressionBuilder.keyConditional(hashName, hashValue, null, null).orElseThrow()))
                 .filterExpression(filterExpressionBuilder.build());
 
         return querySpec.limit(PAGE_SIZE).build();
     }
 
-    private CompletableFuture<SdkIterable<Page<EnhancedDocument>>> queryTableItems(QueryEnhancedRequest querySpec) {
-        return supplyAsync(() -> {
-            LOG.fine(() -> String.format("Query %1s = %2s", table.tableName(), logAsJson(querySpec)));
-            return table.query(querySpec);
-        });
+    /**
+     * @param projection        attributes to read, empty to read the full items
+     * @param exclusiveStartKey key to go on from, null to read from the beginning
+     */
+    private static QueryEnhancedRequest project(QueryEnhancedRequest querySpec, Set<String> projection, Map<String, AttributeValue> exclusiveStartKey) {
+        QueryEnhancedRequest.Builder builder = querySpec.toBuilder().exclusiveStartKey(exclusiveStartKey);
+        if (!projection.isEmpty()) {
+            builder.attributesToProject(projection);
+        }
+        return builder.build();
     }
 
-    private CompletableFuture<SdkIterable<Page<EnhancedDocument>>> queryIndexItems(QueryEnhancedRequest querySpec, DynamoDbIndex<EnhancedDocument> index) {
-        return supplyAsync(() -> {
-            LOG.fine(() -> String.format("Query %1s = %2s", index.indexName(), logAsJson(querySpec)));
-            return index.query(querySpec);
-        });
+    /**
+     * @param projection        attributes to read, empty to read the full items
+     * @param exclusiveStartKey key to go on from, null to read from the beginning
+     */
+    private static ScanEnhancedRequest project(ScanEnhancedRequest scanSpec, Set<String> projection, Map<String, AttributeValue> exclusiveStartKey) {
+        ScanEnhancedRequest.Builder builder = scanSpec.toBuilder().exclusiveStartKey(exclusiveStartKey);
+        if (!projection.isEmpty()) {
+            builder.attributesToProject(projection);
+        }
+        return builder.build();
+    }
+
+    private PageCursor<EnhancedDocument> queryTableItems(QueryEnhancedRequest querySpec) {
+        LOG.fine(() -> String.format("Query %1s = %2s", table.tableName(), logAsJson(querySpec)));
+        return new PublisherPageCursor<>(table.query(querySpec));
+    }
+
+    private PageCursor<EnhancedDocument> queryIndexItems(QueryEnhancedRequest querySpec, DynamoDbAsyncIndex<EnhancedDocument> index) {
+        LOG.fine(() -> String.format("Query %1s = %2s", index.indexName(), logAsJson(querySpec)));
+        return new PublisherPageCursor<>(index.query(querySpec));
+    }
+
+
+    /**
+     * Read the table items with the same keys, in the same order, items deleted since are skipped
+     */
+    private CompletableFuture<List<EnhancedDocument>> readFromTable(List<EnhancedDocument> items) {
+        return readByKey(items).thenApply(found -> items.stream()
+                .map(item -> found.get(tableKeyAttributes(item)))
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    /**
+     * Read the table items with the keys of the items by BatchGetItem
+     *
+     * @return found items by their table key, the items deleted since are missing
+     */
+    private CompletableFuture<Map<Map<String, AttributeValue>, EnhancedDocument>> readByKey(List<? extends EnhancedDocument> items) {
+        Map<Map<String, AttributeValue>, EnhancedDocument> found = new ConcurrentHashMap<>();
+        List<Key> keys = items.stream().map(this::tableKey).toList();
+
+        // the publisher requests unprocessed keys again by itself
+        CompletableFuture<?>[] reads = IntStream.range(0, (keys.size() + BATCH_GET_SIZE - 1) / BATCH_GET_SIZE)
+                .mapToObj(chunk -> keys.subList(chunk * BATCH_GET_SIZE, Math.min(keys.size(), (chunk + 1) * BATCH_GET_SIZE)))
+                .map(chunk -> {
+                    ReadBatch.Builder<EnhancedDocument> batch = ReadBatch.builder(EnhancedDocument.class).mappedTableResource(table);
+                    chunk.forEach(batch::addGetItem);
+                    return documentClient.batchGetItem(request -> request.readBatches(batch.build()))
+                            .resultsForTable(table)
+                            .subscribe(item -> found.put(tableKeyAttributes(item), item));
+                })
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(reads).thenApply(__ -> found);
+    }
+
+    /**
+     * Reads the attributes of the projection which the rows have not been read with by the keys of the rows,
+     * every row is read once even if the projection is widened again meanwhile
+     */
+    private CompletableFuture<Void> readUnread(RowStore rowStore, List<EnhancedDocument> rows) {
+        Map<Set<String>, List<StoredDocument>> unread = rowStore.takeUnread(rows);
+        if (unread.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return eventBus.activity(CompletableFuture.allOf(unread.entrySet().stream()
+                .map(entry -> readAttributes(rowStore, entry.getValue(), entry.getKey()))
+                .toArray(CompletableFuture[]::new)));
+    }
+
+    /**
+     * BatchGetItem reads the whole items, only the attributes which the rows miss are kept
+     */
+    private CompletableFuture<Void> readAttributes(RowStore rowStore, List<StoredDocument> rows, Set<String> attributes) {
+        return readByKey(rows)
+                .thenComposeAsync(found -> {
+                    List<StoredDocument> readRows = new ArrayList<>(rows.size());
+                    List<EnhancedDocument> values = new ArrayList<>(rows.size());
+                    rows.forEach(row -> {
+                        EnhancedDocument item = found.get(tableKeyAttributes(row));
+                        if (item != null) {
+                            Map<String, AttributeValue> attributeValues = new HashMap<>(item.toMap());
+                            attributeValues.keySet().retainAll(attributes);
+                            readRows.add(row);
+                            values.add(EnhancedDocument.fromAttributeValueMap(attributeValues));
+                        }
+                    });
+                    return RowStore.prepare(values, tableModel.getSchema(), executors.cpu()).thenApply(page -> new Pair<>(readRows, page));
+                }, executors.cpu())
+                .thenAcceptAsync(pair -> {
+                    // the data has been refreshed meanwhile or the items have been deleted
+                    if (tableModel.getRowStore() != rowStore || pair.getKey().isEmpty()) {
+                        return;
+                    }
+                    tableModel.getTableDef().getAttributeTypesMap().putAll(schemaChanges(pair.getValue()));
+                    rowStore.set(pair.getKey(), pair.getValue());
+                    // the rows replace themselves, so the sorting, the filter and the highlighting take the new values
+                    tableModel.getRows().setAll(List.copyOf(tableModel.getRows()));
+                    if (tableModel.getFilteredRows().getPredicate() != null && !Collections.disjoint(filterValues().keySet(), attributes)) {
+                        onApplyLocalFilter();
+                    }
+                }, uiExecutor);
+    }
+
+    private Key tableKey(EnhancedDocument item) {
+        Map<String, AttributeValue> attributes = item.toMap();
+        Key.Builder key = Key.builder().partitionValue(attributes.get(hash()));
+        if (range() != null) {
+            key.sortValue(attributes.get(range()));
+        }
+        return key.build();
     }
 
+    private Map<String, AttributeValue> tableKeyAttributes(EnhancedDocument item) {
+        Map<String, AttributeValue> attributes = item.toMap();
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(hash(), attributes.get(hash()));
+        if (range() != null) {
+            key.put(range(), attributes.get(range()));
+        }
+        return key;
+    }
 
-    private CompletableFuture<Void> delete(List<EnhancedDocument> items) {
-        return runAsync(() -> dynamoDbTableService.delete(items));
+    private CompletableFuture<BatchWriteSummary> delete(List<EnhancedDocument> items) {
+        return supplyAsync(() -> dynamoDbTableService.delete(items), executors.transfer());
+    }
+
+    private static void checkWritten(BatchWriteSummary summary) {
+        LOG.fine(summary::describe);
+        if (!summary.isComplete()) {
+            throw new IllegalStateException(summary.describe());
+        }
     }
 
     /**
@@ -419,13 +810,42 @@ public class TableGridController {
         tableModel.getTableDef().setTotalCount(tableDescription.itemCount());
     }
 
-    private void bindToModel(Pair<List<EnhancedDocument>, Iterator<Page<EnhancedDocument>>> pair) {
+    private void bindToModel(Pair<RowStore.Page, PrefetchingPageCursor<EnhancedDocument>> pair, QueryToken query) {
+        if (query.isCancelled()) {
+            return;
+        }
+
         Map<String, Type> attributesTypes = new TreeMap<>(KEYS_FIRST(hash(), range()));
-        attributesTypes.putAll(defineAttributesTypes(pair.getKey()));
+        attributesTypes.putAll(schemaChanges(pair.getKey()));
 
         tableModel.getTableDef().getAttributeTypesMap().putAll(attributesTypes);
-        tableModel.setPageIterator(pair.getValue());
-        tableModel.getRows().addAll(pair.getKey());
+        tableModel.setPageCursor(pair.getValue());
+        addRows(tableModel.getRowStore(), pair.getKey());
+    }
+
+    /**
+     * The rows of the items which have been read before the projection was widened read the attributes they miss
+     */
+    private void addRows(RowStore rowStore, RowStore.Page page) {
+        List<EnhancedDocument> rows = rowStore.addAll(page);
+        tableModel.getRows().addAll(rows);
+        readUnread(rowStore, rows);
+    }
+
+    /**
+     * The schema has folded the pages of cancelled queries too, so the changes are found against the attributes of the table definition
+     *
+     * @return attributes of the page which are new or whose type has changed
+     */
+    private Map<String, Type> schemaChanges(RowStore.Page page) {
+        Map<String, Type> known = tableModel.getTableDef().getAttributeTypesMap();
+        Map<String, Type> changes = new LinkedHashMap<>();
+        page.types().forEach((name, type) -> {
+            if (known.get(name) != type) {
+                changes.put(name, type);
+            }
+        });
+        return changes;
     }
 
     private void bindToModel(TableDef tableDef) {
@@ -433,22 +853,13 @@ public class TableGridController {
     }
 
     private void applyContext() {
-        DocumentTableSchema.Builder schemaBuilder = TableSchema.documentSchemaBuilder()
-                .addIndexPartitionKey(TableMetadata.primaryIndexName(), hash(), AttributeValueType.S);
+        TableDescription description = tableModel.getOriginalTableDescription();
+        DocumentTableSchema.Builder schemaBuilder = TableSchema.documentSchemaBuilder();
+        addIndexKeys(schemaBuilder, description, TableMetadata.primaryIndexName(), description.keySchema());
 
-        if (range() != null) {
-            schemaBuilder.addIndexSortKey(TableMetadata.primaryIndexName(), range(), AttributeValueType.S);
-        }
-
-        tableModel.getFullProjectionIndexes().forEach(indexDescription -> {
-            indexDescription.keySchema().forEach(key -> {
-                if (key.keyType() == KeyType.HASH) {
-                    schemaBuilder.addIndexPartitionKey(indexDescription.indexName(), key.attributeName(), AttributeValueType.S);
-                } else if (key.keyType() == KeyType.RANGE) {
-                    schemaBuilder.addIndexSortKey(indexDescription.indexName(), key.attributeName(), AttributeValueType.S);
-                }
-            });
-        });
+        // the planner can query any index, the ones without all attributes are read back from the table
+        description.globalSecondaryIndexes().forEach(index -> addIndexKeys(schemaBuilder, description, index.indexName(), index.keySchema()));
+        description.localSecondaryIndexes().forEach(index -> addIndexKeys(schemaBuilder, description, index.indexName(), index.keySchema()));
 
         table = documentClient.table(context.tableName(), schemaBuilder.build());
 
@@ -457,6 +868,17 @@ public class TableGridController {
         }
     }
 
+    private static void addIndexKeys(DocumentTableSchema.Builder schemaBuilder, TableDescription description, String indexName, List<KeySchemaElement> keySchema) {
+        keySchema.forEach(key -> {
+            AttributeValueType type = keyAttributeType(description, key.attributeName());
+            if (key.keyType() == KeyType.HASH) {
+                schemaBuilder.addIndexPartitionKey(indexName, key.attributeName(), type);
+            } else if (key.keyType() == KeyType.RANGE) {
+                schemaBuilder.addIndexSortKey(indexName, key.attributeName(), type);
+            }
+        });
+    }
+
     /**
      * Check that filters map has not null or not empty value for the attribute
      *
@@ -468,6 +890,46 @@ public class TableGridController {
         return property != null && StringUtils.isNotBlank(property.get());
     }
 
+    /**
+     * @return not blank filters by the attribute name
+     */
+    private Map<String, String> filterValues() {
+        Map<String, String> filters = new HashMap<>();
+        tableModel.getAttributeFilterMap().forEach((attribute, property) -> {
+            if (StringUtils.isNotBlank(property.get())) {
+                filters.put(attribute, property.get());
+            }
+        });
+        return filters;
+    }
+
+    /**
+     * In the projection mode the table keys, the visible columns and the filtered attributes are read,
+     * the filtered attributes are needed to narrow the loaded rows locally
+     *
+     * @return empty set if the full items are read
+     */
+    private Set<String> projectedAttributes() {
+        if (!tableModel.isProjection()) {
+            return Set.of();
+        }
+        Set<String> attributes = new LinkedHashSet<>();
+        attributes.add(hash());
+        if (range() != null) {
+            attributes.add(range());
+        }
+        attributes.addAll(tableModel.getVisibleAttributes());
+        attributes.addAll(filterValues().keySet());
+        return attributes;
+    }
+
+    /**
+     * Types of the key attributes from the table definition and of the others from the loaded items
+     */
+    private Map<String, Type> attributeTypes() {
+        return new HashMap<>(tableModel.getTableDef().getAttributeTypesMap());
+    }
+
     private String hash() {
         return tableModel.getTableDef().getHashAttribute();
     }
@@ -19,19 +19,22 @@ package ua.org.java.dynamoit.components.tablegrid;
 
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.IntegerBinding;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
+import javafx.collections.transformation.FilteredList;
 import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
-import software.amazon.awssdk.enhanced.dynamodb.model.Page;
-import software.amazon.awssdk.services.dynamodb.model.GlobalSecondaryIndexDescription;
-import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
 import software.amazon.awssdk.services.dynamodb.model.TableDescription;
 import ua.org.java.dynamoit.components.main.MainModel;
+import ua.org.java.dynamoit.components.tablegrid.planner.QueryPlan;
+import ua.org.java.dynamoit.components.tablegrid.store.RowStore;
+import ua.org.java.dynamoit.components.tablegrid.store.SchemaTracker;
 import ua.org.java.dynamoit.model.TableDef;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -44,10 +47,23 @@ public class TableGridModel {
     private String tableName;
     private String profile;
 
+    private RowStore rowStore = new RowStore();
+    private final SchemaTracker schema = new SchemaTracker();
     private final ObservableList<EnhancedDocument> rows = FXCollections.observableArrayList();
     private final IntegerBinding rowsSize = Bindings.createIntegerBinding(rows::size, rows);
-    private Iterator<Page<EnhancedDocument>> pageIterator;
-    private List<GlobalSecondaryIndexDescription> fullProjectionIndexes = List.of();
+    private final FilteredList<EnhancedDocument> filteredRows = new FilteredList<>(rows);
+    private final IntegerBinding filteredRowsSize = Bindings.createIntegerBinding(filteredRows::size, filteredRows);
+    private final SimpleBooleanProperty localFilter = new SimpleBooleanProperty();
+    private final SimpleBooleanProperty projection = new SimpleBooleanProperty();
+    private List<String> visibleAttributes = List.of();
+    private PrefetchingPageCursor<EnhancedDocument> pageCursor;
+    private final SimpleIntegerProperty scanSegments = new SimpleIntegerProperty(1);
+    private final ObservableList<SegmentedPageCursor.SegmentProgress> segmentsProgress = FXCollections.observableArrayList();
+    private final SimpleObjectProperty<QueryPlan> queryPlan = new SimpleObjectProperty<>();
+    private final ObservableList<QueryPlan> queryPlanCandidates = FXCollections.observableArrayList();
+    private final SimpleObjectProperty<TransferProgress> transfer = new SimpleObjectProperty<>();
+    private final SimpleStringProperty transferStatus = new SimpleStringProperty();
+    private JsonImporter.Checkpoint importCheckpoint;
 
     private final ObservableMap<String, SimpleStringProperty> attributeFilterMap = FXCollections.observableHashMap();
 
@@ -83,6 +99,24 @@ public class TableGridModel {
         this.profile = profile;
     }
 
+    /**
+     * Columns of the loaded rows, the rows are handles into the store
+     */
+    public RowStore getRowStore() {
+        return rowStore;
+    }
+
+    public void setRowStore(RowStore rowStore) {
+        this.rowStore = rowStore;
+    }
+
+    /**
+     * Types of the attributes of all rows loaded in the tab
+     */
+    public SchemaTracker getSchema() {
+        return schema;
+    }
+
     public ObservableList<EnhancedDocument> getRows() {
         return rows;
     }
@@ -95,38 +129,151 @@ public class TableGridModel {
         return rowsSize;
     }
 
+    /**
+     * Loaded rows narrowed by the local filter
+     */
+    public FilteredList<EnhancedDocument> getFilteredRows() {
+        return filteredRows;
+    }
+
+    public IntegerBinding filteredRowsSizeProperty() {
+        return filteredRowsSize;
+    }
+
+    public boolean isLocalFilter() {
+        return localFilter.get();
+    }
+
+    /**
+     * Filters are applied to the loaded rows instead of reading the table again
+     */
+    public SimpleBooleanProperty localFilterProperty() {
+        return localFilter;
+    }
+
+    public void setLocalFilter(boolean localFilter) {
+        this.localFilter.set(localFilter);
+    }
+
+    public boolean isProjection() {
+        return projection.get();
+    }
+
+    /**
+     * Only the keys, the visible columns and the filtered attributes are read from the table
+     */
+    public SimpleBooleanProperty projectionProperty() {
+        return projection;
+    }
+
+    public void setProjection(boolean projection) {
+        this.projection.set(projection);
+    }
+
+    /**
+     * Attributes of the pinned columns and of the columns in the viewport
+     */
+    public List<String> getVisibleAttributes() {
+        return visibleAttributes;
+    }
+
+    public void setVisibleAttributes(List<String> visibleAttributes) {
+        this.visibleAttributes = List.copyOf(visibleAttributes);
+    }
+
     public ObservableMap<String, SimpleStringProperty> getAttributeFilterMap() {
         return attributeFilterMap;
     }
 
-    public Iterator<Page<EnhancedDocument>> getPageIterator() {
-        return pageIterator;
+    public PrefetchingPageCursor<EnhancedDocument> getPageCursor() {
+        return pageCursor;
     }
 
-    public void setPageIterator(Iterator<Page<EnhancedDocument>> pageIterator) {
-        this.pageIterator = pageIterator;
+    public void setPageCursor(PrefetchingPageCursor<EnhancedDocument> pageCursor) {
+        this.pageCursor = pageCursor;
     }
 
-    public TableDescription getOriginalTableDescription() {
-        return originalTableDescription;
+    public int getScanSegments() {
+        return scanSegments.get();
     }
 
-    public TableGridModel setOriginalTableDescription(TableDescription originalTableDescription) {
-        this.originalTableDescription = originalTableDescription;
+    /**
+     * Number of segments a scan is split into, every segment is read by a separate request in parallel
+     */
+    public SimpleIntegerProperty scanSegmentsProperty() {
+        return scanSegments;
+    }
 
-        this.fullProjectionIndexes = originalTableDescription.globalSecondaryIndexes().stream()
-                .filter(__ -> __.projection().projectionType().equals(ProjectionType.ALL)).toList();
+    public void setScanSegments(int scanSegments) {
+        this.scanSegments.set(scanSegments);
+    }
 
-        return this;
+    public ObservableList<SegmentedPageCursor.SegmentProgress> getSegmentsProgress() {
+        return segmentsProgress;
     }
 
     /**
-     * Returns a stream of {@link GlobalSecondaryIndexDescription} objects representing the full projection indexes of this table.
-     * A full projection index is a global secondary index that replicates all attributes from the primary table.
-     *
-     * @return A stream of {@link GlobalSecondaryIndexDescription} objects.
+     * How the last data load has read the items
      */
-    public List<GlobalSecondaryIndexDescription> getFullProjectionIndexes() {
-        return this.fullProjectionIndexes;
+    public QueryPlan getQueryPlan() {
+        return queryPlan.get();
+    }
+
+    public SimpleObjectProperty<QueryPlan> queryPlanProperty() {
+        return queryPlan;
+    }
+
+    public void setQueryPlan(QueryPlan queryPlan) {
+        this.queryPlan.set(queryPlan);
+    }
+
+    /**
+     * Every way to read the items which has been considered for the last data load
+     */
+    public ObservableList<QueryPlan> getQueryPlanCandidates() {
+        return queryPlanCandidates;
+    }
+
+    public TransferProgress getTransfer() {
+        return transfer.get();
+    }
+
+    /**
+     * Export or import which is running at the moment
+     */
+    public SimpleObjectProperty<TransferProgress> transferProperty() {
+        return transfer;
+    }
+
+    public void setTransfer(TransferProgress transfer) {
+        this.transfer.set(transfer);
+    }
+
+    public SimpleStringProperty transferStatusProperty() {
+        return transferStatus;
+    }
+
+    public void setTransferStatus(String transferStatus) {
+        this.transferStatus.set(transferStatus);
+    }
+
+    /**
+     * Where the last interrupted import has stopped
+     */
+    public JsonImporter.Checkpoint getImportCheckpoint() {
+        return importCheckpoint;
+    }
+
+    public void setImportCheckpoint(JsonImporter.Checkpoint importCheckpoint) {
+        this.importCheckpoint = importCheckpoint;
+    }
+
+    public TableDescription getOriginalTableDescription() {
+        return originalTableDescription;
+    }
+
+    public TableGridModel setOriginalTableDescription(TableDescription originalTableDescription) {
+        this.originalTableDescription = originalTableDescription;
+        return this;
     }
 }
@@ -20,13 +20,14 @@ package ua.org.java.dynamoit.components.tablegrid;
 import dagger.Module;
 import dagger.Provides;
 import javafx.application.HostServices;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.main.MainModel;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.model.profile.ProfileDetails;
 import ua.org.java.dynamoit.services.DynamoDbClientRegistry;
 import ua.org.java.dynamoit.services.DynamoDbTableService;
+import ua.org.java.dynamoit.utils.AppExecutors;
 import ua.org.java.dynamoit.utils.FXExecutor;
 
 import javax.inject.Singleton;
@@ -42,8 +43,8 @@ public class TableGridModule {
     }
 
     @Provides
-    public TableGridView view(TableGridController controller, TableGridModel tableModel, ThemeManager themeManager) {
-        return new TableGridView(controller, tableModel, themeManager);
+    public TableGridView view(TableGridController controller, TableGridModel tableModel, ThemeManager themeManager, AppExecutors executors) {
+        return new TableGridView(controller, tableModel, themeManager, executors);
     }
 
     @Provides
@@ -52,17 +53,19 @@ public class TableGridModule {
             TableGridModel tableModel,
             DynamoDbClientRegistry dbClientRegistry,
             EventBus eventBus,
-            HostServices hostServices
+            HostServices hostServices,
+            AppExecutors executors
     ) {
         ProfileDetails profileDetails = tableModel.getProfileModel().getProfileDetails();
 
-        DynamoDbEnhancedClient enhancedClient = dbClientRegistry.getOrCreateDocumentClient(profileDetails);
+        DynamoDbEnhancedAsyncClient enhancedClient = dbClientRegistry.getOrCreateAsyncDocumentClient(profileDetails);
         TableGridController controller = new TableGridController(
                 tableContext,
                 tableModel,
-                DynamoDbTableService.getOrCreate(profileDetails, tableContext.tableName(), dbClientRegistry),
+                DynamoDbTableService.getOrCreate(profileDetails, tableContext.tableName(), dbClientRegistry, executors.write()),
                 eventBus,
                 getUIExecutor(),
+                executors,
                 hostServices,
                 enhancedClient
         );
@@ -17,14 +17,16 @@
 
 package ua.org.java.dynamoit.components.tablegrid;
 
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.ListChangeListener;
 import javafx.collections.MapChangeListener;
-import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.control.skin.TableViewSkin;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
@@ -34,19 +36,24 @@ import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
 import software.amazon.awssdk.enhanced.dynamodb.internal.document.DefaultEnhancedDocument;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import ua.org.java.dynamoit.components.tablegrid.highlight.Highlighter;
+import ua.org.java.dynamoit.components.tablegrid.planner.QueryPlan;
+import ua.org.java.dynamoit.components.tablegrid.store.StoredDocument;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
+import ua.org.java.dynamoit.utils.AppExecutors;
 import ua.org.java.dynamoit.utils.DX;
 import ua.org.java.dynamoit.utils.Utils;
 import ua.org.java.dynamoit.widgets.ClearableTextField;
 
 import java.io.File;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static atlantafx.base.theme.Styles.BUTTON_ICON;
+import static atlantafx.base.theme.Styles.STATE_WARNING;
 import static javafx.beans.binding.Bindings.*;
 import static ua.org.java.dynamoit.utils.Utils.copyToClipboard;
 import static ua.org.java.dynamoit.utils.Utils.uglyToPrettyJson;
@@ -55,20 +62,31 @@ public class TableGridView extends VBox {
 
     private static final int PADDING = 7 + 7; // left + right paddings
     private static final int FONT_SIZE = 10;
+    private static final int MAX_SCAN_SEGMENTS = 32;
 
     private final TableGridModel tableModel;
     private final ThemeManager themeManager;
+    private final AppExecutors executors;
 
     private final TableGridController controller;
     private Button clearFilterButton;
     private final TableView<EnhancedDocument> tableView = new TableView<>();
+    private MyTableViewSkin<EnhancedDocument> tableViewSkin;
 
-    private final Highlighter highlighter = new Highlighter();
+    private TableColumn<EnhancedDocument, Number> indexColumn;
+    private final ColumnWindow columnWindow = new ColumnWindow();
+    private final Map<String, TableColumn<EnhancedDocument, String>> attributeColumns = new HashMap<>();
+    private final List<TableColumn<EnhancedDocument, String>> gapColumns = new ArrayList<>();
+    private boolean layoutScheduled;
 
-    public TableGridView(TableGridController controller, TableGridModel tableModel, ThemeManager themeManager) {
+    private final Highlighter highlighter;
+
+    public TableGridView(TableGridController controller, TableGridModel tableModel, ThemeManager themeManager, AppExecutors executors) {
         this.controller = controller;
         this.tableModel = tableModel;
         this.themeManager = themeManager;
+        this.executors = executors;
+        this.highlighter = new Highlighter(tableModel.getRows(), executors.cpu(), Platform::runLater);
 
         buildUI();
         addModelListeners();
@@ -100,6 +118,20 @@ public class TableGridView extends VBox {
                             button.getStyleClass().addAll(BUTTON_ICON);
                             button.setOnAction(event -> clearFilter());
                         }),
+                        DX.create(ToggleButton::new, (ToggleButton button) -> {
+                            button.setTooltip(new Tooltip("Filter the loaded rows without reading the table"));
+                            button.setGraphic(DX.icon("icons/filter_add.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.selectedProperty().bindBidirectional(tableModel.localFilterProperty());
+                            button.setOnAction(event -> applyFilter());
+                        }),
+                        DX.create(ToggleButton::new, (ToggleButton button) -> {
+                            button.setTooltip(new Tooltip("Read only the keys and the visible columns, the full document is read when it's opened"));
+                            button.setGraphic(DX.icon("icons/table.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.selectedProperty().bindBidirectional(tableModel.projectionProperty());
+                            button.setOnAction(event -> controller.onRefreshData());
+                        }),
                         DX.create(Button::new, button -> {
                             button.setTooltip(new Tooltip("Clear highlighting"));
                             button.setGraphic(DX.icon("icons/color_swatches.png"));
@@ -133,6 +165,7 @@ public class TableGridView extends VBox {
                             button.setTooltip(new Tooltip("Save table as json"));
                             button.setGraphic(DX.icon("icons/diskette.png"));
                             button.getStyleClass().addAll(BUTTON_ICON);
+                            button.disableProperty().bind(tableModel.transferProperty().isNotNull());
                             button.setOnAction(event -> {
                                 FileChooser fileChooser = new FileChooser();
                                 fileChooser.setInitialFileName(tableModel.getTableName() + ".json");
@@ -152,6 +185,7 @@ public class TableGridView extends VBox {
                             button.setTooltip(new Tooltip("Load json into the table"));
                             button.setGraphic(DX.icon("icons/folder_go.png"));
                             button.getStyleClass().addAll(BUTTON_ICON);
+                            button.disableProperty().bind(tableModel.transferProperty().isNotNull());
                             button.setOnAction(event -> {
                                 FileChooser fileChooser = new FileChooser();
                                 FileChooser.ExtensionFilter jsonFiles = new FileChooser.ExtensionFilter("Json files", "*.json");
@@ -162,25 +196,63 @@ public class TableGridView extends VBox {
                                 fileChooser.setSelectedExtensionFilter(jsonFiles);
                                 File file = fileChooser.showOpenDialog(this.getScene().getWindow());
                                 if (file != null) {
-                                    controller.onLoadFromFile(file);
+                                    loadFromFile(file);
                                 }
                             });
                         }),
                         new Separator(),
+                        DX.create(Button::new, button -> {
+                            button.setTooltip(new Tooltip("Pin columns"));
+                            button.setGraphic(DX.icon("icons/sort_columns.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.setOnAction(event -> showColumnPicker());
+                        }),
                         DX.create(Button::new, button -> {
                             button.setTooltip(new Tooltip("Show table information"));
                             button.setGraphic(DX.icon("icons/information.png"));
                             button.getStyleClass().addAll(BUTTON_ICON);
                             button.setOnAction(event -> createTableInfoDialog().show());
                         }),
+                        DX.create(Label::new, label -> {
+                            label.textProperty().bind(tableModel.transferStatusProperty());
+                            label.visibleProperty().bind(tableModel.transferProperty().isNotNull());
+                            label.managedProperty().bind(label.visibleProperty());
+                        }),
+                        DX.create(Button::new, button -> {
+                            button.setTooltip(new Tooltip("Cancel export / import"));
+                            button.setGraphic(DX.icon("icons/cross.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.visibleProperty().bind(tableModel.transferProperty().isNotNull());
+                            button.managedProperty().bind(button.visibleProperty());
+                            button.setOnAction(event -> controller.onCancelTransfer());
+                        }),
                         DX.spacer(),
+                        DX.create(Label::new, label -> {
+                            label.textProperty().bind(createStringBinding(() -> Optional.ofNullable(tableModel.getQueryPlan()).map(QueryPlan::describe).orElse(""), tableModel.queryPlanProperty()));
+                            label.tooltipProperty().bind(createObjectBinding(() -> new Tooltip(queryPlanCandidatesText()), tableModel.getQueryPlanCandidates()));
+                            label.visibleProperty().bind(tableModel.queryPlanProperty().isNotNull());
+                            label.managedProperty().bind(label.visibleProperty());
+                        }),
+                        DX.create(Label::new, label -> {
+                            label.textProperty().bind(createStringBinding(this::segmentsProgressText, tableModel.getSegmentsProgress()));
+                            label.visibleProperty().bind(isNotEmpty(tableModel.getSegmentsProgress()));
+                            label.managedProperty().bind(label.visibleProperty());
+                        }),
+                        DX.create(() -> new Spinner<Integer>(1, MAX_SCAN_SEGMENTS, 1), spinner -> {
+                            spinner.setTooltip(new Tooltip("Number of parallel scan segments, applied on the next refresh"));
+                            spinner.setPrefWidth(70);
+                            spinner.getValueFactory().setValue(tableModel.getScanSegments());
+                            spinner.valueProperty().addListener((observable, oldValue, newValue) -> tableModel.setScanSegments(newValue));
+                        }),
                         DX.create(Label::new, t -> {
-                            t.textProperty().bind(concat("Count [", tableModel.rowsSizeProperty(), " of ~", tableModel.getTableDef().totalCountProperty(), "]"));
+                            t.textProperty().bind(concat("Count [", createStringBinding(this::rowsCountText, tableModel.rowsSizeProperty(), tableModel.filteredRowsSizeProperty()),
+                                    " of ~", tableModel.getTableDef().totalCountProperty(), "]"));
                         })
                 )),
                 DX.create(() -> this.tableView, tableView -> {
 //                    tableView.getStyleClass().addAll(INTERACTIVE);
                     tableView.getColumns().add(DX.create((Supplier<TableColumn<EnhancedDocument, Number>>) TableColumn::new, column -> {
+                        this.indexColumn = column;
                         column.prefWidthProperty().bind(createIntegerBinding(() -> {
                             int charsNumber = String.valueOf(tableModel.rowsSizeProperty().get()).length();
                             return PADDING + charsNumber * FONT_SIZE;
@@ -188,13 +260,19 @@ public class TableGridView extends VBox {
                         column.setResizable(true);
                         column.setSortable(false);
                         column.getStyleClass().add("column-index");
-                        column.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(tableModel.getRows().indexOf(param.getValue()) + 1));
+                        // the position is kept by the row itself, looking it up in the rows is linear
+                        column.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue() instanceof StoredDocument row ? row.getIndex() + 1 : null));
                     }));
 
                     VBox.setVgrow(tableView, Priority.ALWAYS);
                     tableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
-                    tableView.setItems(tableModel.getRows());
-                    tableView.setSkin(new MyTableViewSkin<>(tableView));
+                    SortedList<EnhancedDocument> sortedRows = new SortedList<>(tableModel.getFilteredRows());
+                    sortedRows.comparatorProperty().bind(tableView.comparatorProperty());
+                    tableView.setItems(sortedRows);
+                    this.tableViewSkin = new MyTableViewSkin<>(tableView);
+                    tableView.setSkin(tableViewSkin);
+                    tableView.widthProperty().addListener(observable -> scheduleLayout());
+                    tableView.getSortOrder().addListener((ListChangeListener<TableColumn<EnhancedDocument, ?>>) c -> scheduleLayout());
                     tableView.setRowFactory(param -> {
                         TableRow<EnhancedDocument> tableRow = new TableRow<>();
                         tableRow.setOnMouseClicked(event -> {
@@ -228,14 +306,14 @@ public class TableGridView extends VBox {
     private void addModelListeners() {
         tableModel.getTableDef().getAttributeTypesMap().addListener((MapChangeListener<String, Attributes.Type>) c -> {
             if (c.wasAdded()) {
-                buildTableHeaders();
+                scheduleLayout();
             }
         });
 
         tableModel.getRows().addListener((ListChangeListener<EnhancedDocument>) c -> {
             while (c.next()) {
                 if (c.wasAdded()) {
-                    tableView.scrollTo(c.getFrom());
+                    tableView.scrollTo(c.getAddedSubList().get(0));
                 }
             }
         });
@@ -251,15 +329,76 @@ public class TableGridView extends VBox {
         });
     }
 
+    /**
+     * The attributes of a page are added to the map one by one and the viewport moves on every scroll event,
+     * the columns are laid out once per pulse
+     */
+    private void scheduleLayout() {
+        if (!layoutScheduled) {
+            layoutScheduled = true;
+            Platform.runLater(() -> {
+                layoutScheduled = false;
+                buildTableHeaders();
+            });
+        }
+    }
+
     private void buildTableHeaders() {
-        List<String> availableAttributes = tableView.getColumns().stream()
-                .map(TableColumnBase::getId).toList();
+        columnWindow.addAll(tableModel.getTableDef().getAttributeTypesMap().keySet());
+
+        double scrollX = tableViewSkin != null ? tableViewSkin.horizontalBar().getValue() : 0;
+        double leading = indexColumn.getWidth() + columnWindow.getPinned().stream().mapToDouble(columnWindow::getWidth).sum();
+        Set<String> sorted = new HashSet<>();
+        tableView.getSortOrder().forEach(column -> sorted.add(column.getId()));
+        List<ColumnWindow.Slot> slots = columnWindow.layout(scrollX - leading, tableView.getWidth(), tableView.getWidth() / 2, sorted);
+        controller.onVisibleAttributesChanged(columnWindow.visible(scrollX - leading, tableView.getWidth()));
+
+        List<TableColumn<EnhancedDocument, ?>> columns = new ArrayList<>(slots.size() + 1);
+        columns.add(indexColumn);
+        Set<String> materialized = new HashSet<>();
+        int gaps = 0;
+        for (ColumnWindow.Slot slot : slots) {
+            switch (slot) {
+                case ColumnWindow.Column column -> {
+                    materialized.add(column.attribute());
+                    columns.add(attributeColumns.computeIfAbsent(column.attribute(), this::buildTableColumn));
+                }
+                case ColumnWindow.Gap gap -> columns.add(gapColumn(gaps++, gap.width()));
+            }
+        }
+        // the columns out of the window are dropped with their nodes, only their width is kept
+        attributeColumns.keySet().retainAll(materialized);
 
-        tableModel.getTableDef().getAttributeTypesMap().keySet().stream()
-                .filter(attrName -> !availableAttributes.contains(attrName))
-                .map(this::buildTableColumn)
-                .forEach(tableView.getColumns()::add);
+        if (!columns.equals(tableView.getColumns())) {
+            tableView.getColumns().setAll(columns);
+        }
+    }
 
+    /**
+     * Empty column which stands for the columns that are not materialized, so the scroll bar covers the whole table
+     */
+    private TableColumn<EnhancedDocument, String> gapColumn(int index, double width) {
+        if (index == gapColumns.size()) {
+            gapColumns.add(DX.create(TableColumn::new, column -> {
+                column.setSortable(false);
+                column.setResizable(false);
+                column.setReorderable(false);
+                column.setMaxWidth(Double.MAX_VALUE);
+            }));
+        }
+        TableColumn<EnhancedDocument, String> column = gapColumns.get(index);
+        column.setMinWidth(width);
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    private void showColumnPicker() {
+        ColumnPickerDialog dialog = new ColumnPickerDialog(columnWindow.getAttributes(), columnWindow.getPinned());
+        themeManager.applyPseudoClasses(dialog.getDialogPane());
+        dialog.showAndWait().ifPresent(pinned -> {
+            columnWindow.setPinned(pinned);
+            buildTableHeaders();
+        });
     }
 
     private TableColumn<EnhancedDocument, String> buildTableColumn(String attrName) {
@@ -270,8 +409,17 @@ public class TableGridView extends VBox {
             filter.getStyleClass().add("table-column-filter");
             filter.setGraphic(DX.create(ClearableTextField::new, textField -> {
                 textField.textProperty().bindBidirectional(filterProperty);
-                textField.setOnAction(event -> reloadData());
-                textField.setOnClear(event -> reloadData());
+                textField.textProperty().addListener((observable, oldValue, newValue) -> {
+                    // a text which is not a valid filter is still matched as a plain value, only the hint is shown
+                    Optional<String> error = controller.validateFilter(attrName, newValue);
+                    textField.pseudoClassStateChanged(STATE_WARNING, error.isPresent());
+                    textField.setTooltip(error.map(Tooltip::new).orElse(null));
+                    if (tableModel.isLocalFilter() && controller.isLocalFilterApplicable()) {
+                        controller.onApplyLocalFilter();
+                    }
+                });
+                textField.setOnAction(event -> applyFilter());
+                textField.setOnClear(event -> applyFilter());
             }));
             filter.getColumns().add(DX.create((Supplier<TableColumn<EnhancedDocument, String>>) TableColumn::new, column -> {
                 if (attrName.equals(tableModel.getTableDef().getHashAttribute())) {
@@ -282,7 +430,11 @@ public class TableGridView extends VBox {
                 }
                 column.setText(attrName);
                 column.setId(attrName);
-                column.setPrefWidth(200);
+                column.setPrefWidth(columnWindow.getWidth(attrName));
+                column.widthProperty().addListener((observable, oldValue, newValue) -> {
+                    columnWindow.setWidth(attrName, newValue.doubleValue());
+                    scheduleLayout();
+                });
                 column.setCellValueFactory(param -> {
 //                    String value = param.getValue().getJson(attrName);
                     String value = toDisplayValue(param.getValue(), attrName);
@@ -290,29 +442,53 @@ public class TableGridView extends VBox {
                     return new SimpleStringProperty(value != null ? value : "");
                 });
                 column.setCellFactory(param -> {
-                    TableCell<EnhancedDocument, String> cell = new TableCell<>();
+                    AttributeCell cell = new AttributeCell(attrName);
                     if (Attributes.Type.NUMBER == tableModel.getTableDef().getAttributeTypesMap().get(attrName)) {
                         cell.setAlignment(Pos.CENTER_RIGHT);
                     }
-                    cell.textProperty().bind(cell.itemProperty());
                     attachCellContextMenu(cell, attrName);
-
-                    highlighter.getCriteria(attrName).addListener((ListChangeListener<Highlighter.Criteria>) c -> highlightCellValue(highlighter.getCriteria(attrName), cell));
-                    cell.textProperty().addListener(observable -> highlightCellValue(highlighter.getCriteria(attrName), cell));
-
+                    highlighter.register(attrName, cell);
                     return cell;
                 });
             }));
         });
     }
 
-    private void highlightCellValue(ObservableList<Highlighter.Criteria> criteriaList, TableCell<EnhancedDocument, String> cell) {
-        criteriaList.stream()
-                .filter(criteria -> criteria.match(cell.getText()))
-                .findFirst()
-                .ifPresentOrElse(criteria -> cell.setStyle(
-                        String.format("-fx-background-color: %1s; -fx-text-fill: %2s", criteria.getBackgroundColor(), criteria.getTextColor())
-                ), () -> cell.setStyle(null));
+    /**
+     * Takes the style from the highlighter index when the cell gets a new value
+     */
+    private class AttributeCell extends TableCell<EnhancedDocument, String> implements Highlighter.Target {
+
+        private final String attribute;
+
+        private AttributeCell(String attribute) {
+            this.attribute = attribute;
+        }
+
+        @Override
+        protected void updateItem(String item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(empty ? null : item);
+            highlight(empty ? null : highlighter.find(attribute, rowIndex(), item));
+        }
+
+        private int rowIndex() {
+            if (getTableView() != null && getIndex() >= 0 && getIndex() < getTableView().getItems().size()
+                    && getTableView().getItems().get(getIndex()) instanceof StoredDocument row) {
+                return row.getIndex();
+            }
+            return -1;
+        }
+
+        @Override
+        public String getHighlightedValue() {
+            return isEmpty() ? null : getItem();
+        }
+
+        @Override
+        public void highlight(Highlighter.Criteria criteria) {
+            setStyle(criteria == null ? null : criteria.getStyle());
+        }
     }
 
     private void attachCellContextMenu(TableCell<EnhancedDocument, String> cell, String attrName) {
@@ -334,7 +510,7 @@ public class TableGridView extends VBox {
                                 SimpleStringProperty property = this.tableModel.getAttributeFilterMap().get(attrName);
                                 if (property != null) {
                                     property.set(cell.getText());
-                                    reloadData();
+                                    applyFilter();
                                 }
                             });
                         }),
@@ -349,6 +525,13 @@ public class TableGridView extends VBox {
                                 }
                             });
                         }),
+                        DX.create(MenuItem::new, menuHighlightRule -> {
+                            menuHighlightRule.setText("Highlight by rule...");
+                            menuHighlightRule.setGraphic(DX.icon("icons/color_swatches.png"));
+                            menuHighlightRule.setOnAction(__ -> new HighlightRuleDialog(attrName, cell.getText())
+                                    .showAndWait()
+                                    .ifPresent(rule -> highlighter.addHighlighting(attrName, rule.getKey(), rule.getValue())));
+                        }),
                         DX.create(MenuItem::new, menuEdit -> {
                             menuEdit.setText("Edit document");
                             menuEdit.setGraphic(DX.icon("icons/page_edit.png"));
@@ -373,22 +556,55 @@ public class TableGridView extends VBox {
 
     }
 
+    private void loadFromFile(File file) {
+        JsonImporter.Checkpoint checkpoint = tableModel.getImportCheckpoint();
+        if (checkpoint != null && checkpoint.offset() > 0 && checkpoint.file().equals(file.toPath())) {
+            Alert resumeConfirmation = new Alert(Alert.AlertType.CONFIRMATION,
+                    "The previous import of the file stopped after " + checkpoint.offset() + " document(s). Do you want to continue from there?",
+                    ButtonType.YES, ButtonType.NO, ButtonType.CANCEL);
+            resumeConfirmation.showAndWait().ifPresent(buttonType -> {
+                if (buttonType == ButtonType.YES) {
+                    controller.onLoadFromFile(file, checkpoint.offset());
+                } else if (buttonType == ButtonType.NO) {
+                    controller.onLoadFromFile(file);
+                }
+            });
+        } else {
+            controller.onLoadFromFile(file);
+        }
+    }
+
     private void clearFilter() {
         tableView.getSortOrder().clear();
         controller.onClearFilters();
     }
 
+    /**
+     * Narrows the loaded rows in the local filter mode, otherwise reads the table with the filters
+     */
+    private void applyFilter() {
+        // the rows read without a filtered attribute are narrowed by reading the table
+        if (tableModel.isLocalFilter() && controller.isLocalFilterApplicable()) {
+            controller.onApplyLocalFilter();
+        } else {
+            reloadData();
+        }
+    }
+
     private void reloadData() {
         tableView.getSortOrder().clear();
         controller.onRefreshData();
     }
 
     private void showEditItemDialog(EnhancedDocument document) {
-        showItemDialog(String.format("[%1s] Edit the document", tableModel.getTableName()), document, controller::onUpdateItem, controller::validateItem);
+        // a projected row would overwrite the item without its other attributes
+        controller.onLoadFullItem(document).thenAcceptAsync(item ->
+                showItemDialog(String.format("[%1s] Edit the document", tableModel.getTableName()), item, controller::onUpdateItem, controller::validateItem), Platform::runLater);
     }
 
     private void showCreateItemDialog(EnhancedDocument document) {
-        showItemDialog(String.format("[%1s] Create a new document", tableModel.getTableName()), document, controller::onCreateItem, controller::validateItem);
+        controller.onLoadFullItem(document).thenAcceptAsync(item ->
+                showItemDialog(String.format("[%1s] Create a new document", tableModel.getTableName()), item, controller::onCreateItem, controller::validateItem), Platform::runLater);
     }
 
     private void showPatchDialog() {
@@ -405,13 +621,20 @@ public class TableGridView extends VBox {
         dialog.showAndWait().ifPresent(result -> onSaveConsumer.accept(result, dialog.isEditAsRawJson()));
     }
 
+    /**
+     * The tab of the view is closed
+     */
+    public void onClose() {
+        controller.onClose();
+    }
+
     private void showCompareDialog() {
         if (tableView.getSelectionModel().getSelectedItems().size() >= 2) {
-            EnhancedDocument item1 = tableView.getSelectionModel().getSelectedItems().get(0);
-            EnhancedDocument item2 = tableView.getSelectionModel().getSelectedItems().get(1);
+            CompletableFuture<EnhancedDocument> item1 = controller.onLoadFullItem(tableView.getSelectionModel().getSelectedItems().get(0));
+            CompletableFuture<EnhancedDocument> item2 = controller.onLoadFullItem(tableView.getSelectionModel().getSelectedItems().get(1));
 
-            CompareDialog dialog = new CompareDialog(uglyToPrettyJson(item1.toJson()), uglyToPrettyJson(item2.toJson()));
-            dialog.showAndWait();
+            item1.thenAcceptBothAsync(item2, (document1, document2) ->
+                    new CompareDialog(uglyToPrettyJson(document1.toJson()), uglyToPrettyJson(document2.toJson()), executors.cpu()).showAndWait(), Platform::runLater);
         }
     }
 
@@ -431,12 +654,54 @@ public class TableGridView extends VBox {
         public MyTableViewSkin(javafx.scene.control.TableView<T> control) {
             super(control);
 
+            horizontalBar().valueProperty().addListener(observable -> scheduleLayout());
+
             getVirtualFlow().positionProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue.doubleValue() >= TableGridController.PREFETCH_THRESHOLD) {
+                    controller.onPrefetch();
+                }
                 if (newValue.doubleValue() == 1.0) {
                     controller.onReachScrollEnd();
                 }
             });
         }
+
+        @Override
+        protected VirtualFlow<TableRow<T>> createVirtualFlow() {
+            return new GridFlow<>();
+        }
+
+        private ScrollBar horizontalBar() {
+            return ((GridFlow<?>) getVirtualFlow()).horizontalBar();
+        }
+    }
+
+    /**
+     * Exposes the horizontal scroll bar, its value is the horizontal offset of the content
+     */
+    private static class GridFlow<C extends IndexedCell<?>> extends VirtualFlow<C> {
+
+        private ScrollBar horizontalBar() {
+            return getHbar();
+        }
+    }
+
+    private String queryPlanCandidatesText() {
+        return tableModel.getQueryPlanCandidates().stream()
+                .map(QueryPlan::describe)
+                .collect(Collectors.joining("\n", "Considered:\n", ""));
+    }
+
+    private String rowsCountText() {
+        int loaded = tableModel.rowsSizeProperty().get();
+        int shown = tableModel.filteredRowsSizeProperty().get();
+        return shown == loaded ? String.valueOf(loaded) : shown + " / " + loaded;
+    }
+
+    private String segmentsProgressText() {
+        long finished = tableModel.getSegmentsProgress().stream().filter(SegmentedPageCursor.SegmentProgress::finished).count();
+        long scanned = tableModel.getSegmentsProgress().stream().mapToLong(SegmentedPageCursor.SegmentProgress::scannedItems).sum();
+        return String.format("Segments [%d of %d, %d scanned]", finished, tableModel.getSegmentsProgress().size(), scanned);
     }
 
     private Dialog<?> createTableInfoDialog() {
@@ -444,6 +709,9 @@ public class TableGridView extends VBox {
     }
 
     private static String toDisplayValue(EnhancedDocument doc, String property) {
+        if (doc instanceof StoredDocument row) {
+            return row.display(property);
+        }
         if (doc.toMap().containsKey(property)) {
             AttributeValue attributeValue = doc.toMap().get(property);
             if (attributeValue.s() != null) {
@@ -0,0 +1,92 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counters of a long running export or import, can be cancelled by the user
+ */
+public class TransferProgress {
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final double MB = 1024 * 1024;
+
+    private final String operation;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong lastReportNanos = new AtomicLong(startNanos);
+    private volatile boolean cancelled;
+    private volatile Supplier<String> details = () -> "";
+
+    public TransferProgress(String operation) {
+        this.operation = operation;
+    }
+
+    public void addItems(long count) {
+        items.addAndGet(count);
+    }
+
+    public void addBytes(long count) {
+        bytes.addAndGet(count);
+    }
+
+    public long getItems() {
+        return items.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @param details additional information appended to the description, e.g. consumed capacity
+     */
+    public void setDetails(Supplier<String> details) {
+        this.details = details;
+    }
+
+    /**
+     * Limits how often the ui is refreshed
+     *
+     * @return true if the last report was long enough ago
+     */
+    public boolean shouldReport() {
+        long now = System.nanoTime();
+        long last = lastReportNanos.get();
+        return now - last >= REPORT_INTERVAL_NANOS && lastReportNanos.compareAndSet(last, now);
+    }
+
+    public String describe() {
+        double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+        return String.format("%s [%d items, %.1f MB, %.0f items/s, %.2f MB/s%s]",
+                operation, getItems(), getBytes() / MB, getItems() / seconds, getBytes() / MB / seconds, details.get());
+    }
+
+}
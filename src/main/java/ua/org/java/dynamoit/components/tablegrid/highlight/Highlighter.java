@@ -18,15 +18,32 @@
 package ua.org.java.dynamoit.components.tablegrid.highlight;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.paint.Color;
 import javafx.util.Pair;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import ua.org.java.dynamoit.components.tablegrid.store.StoredDocument;
 import ua.org.java.dynamoit.utils.Utils;
 
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Highlighting rules per attribute.
+ * <p>
+ * Every attribute keeps a hash index from the value to the first matching equality criteria, so a cell finds its style
+ * with one lookup. Prefix, contains, regex and range criteria are compiled once and evaluated for the loaded rows
+ * on the cpu executor, a cell reads the position of the matched criteria of its row.
+ * Cells register weakly and are restyled only when a criteria change affects their value.
+ */
 public class Highlighter {
 
     private static final double SUPER_LIGHT_BRIGHTNESS = 0.95;
@@ -183,15 +200,101 @@ public class Highlighter {
             .collect(Collectors.toList());
 
     private static final Random RAND = new Random();
+    private static final int NOT_EVALUATED = 0;
+    private static final int NO_MATCH = -1;
+
+    private final ObservableList<EnhancedDocument> rows;
+    private final Executor cpuExecutor;
+    private final Executor uiExecutor;
     private final Map<String, ObservableList<Criteria>> attributeCriteria = new HashMap<>();
+    private final Map<String, Rules> attributeRules = new HashMap<>();
+    private final Map<String, int[]> rowStyles = new HashMap<>();
+    private final Map<String, Set<Target>> targets = new HashMap<>();
+    private long rowsGeneration;
+
+    public Highlighter() {
+        this(FXCollections.observableArrayList(), Runnable::run, Runnable::run);
+    }
+
+    /**
+     * @param rows rules other than equality are evaluated for every added page of rows on the cpu executor
+     */
+    public Highlighter(ObservableList<EnhancedDocument> rows, Executor cpuExecutor, Executor uiExecutor) {
+        this.rows = rows;
+        this.cpuExecutor = cpuExecutor;
+        this.uiExecutor = uiExecutor;
+        rows.addListener((ListChangeListener<EnhancedDocument>) c -> {
+            while (c.next()) {
+                if (c.wasRemoved() && c.getList().isEmpty()) {
+                    // the rows are reloaded and numbered from the beginning
+                    rowsGeneration++;
+                    rowStyles.replaceAll((attribute, styles) -> new int[0]);
+                }
+                if (c.wasAdded()) {
+                    evaluate(c.getAddedSubList(), rowStyles.keySet());
+                }
+            }
+        });
+    }
 
     public ObservableList<Criteria> getCriteria(String attribute) {
-        return attributeCriteria.computeIfAbsent(attribute, s -> FXCollections.observableArrayList());
+        return attributeCriteria.computeIfAbsent(attribute, name -> {
+            ObservableList<Criteria> criteria = FXCollections.observableArrayList();
+            criteria.addListener((ListChangeListener<Criteria>) c -> reindex(name, criteria));
+            return criteria;
+        });
     }
 
-    public void addEqHighlighting(String attribute, String value) {
+    /**
+     * @return the first criteria which matches the value of the attribute, null if the value is not highlighted
+     */
+    public Criteria find(String attribute, String value) {
+        return find(attribute, -1, value);
+    }
+
+    /**
+     * Takes the evaluated style of the row if it is ready, otherwise matches the value
+     *
+     * @param row stored position of the row, -1 if unknown
+     */
+    public Criteria find(String attribute, int row, String value) {
+        Rules rules = attributeRules.get(attribute);
+        if (rules == null) {
+            return null;
+        }
+        if (rules.hasPatterns() && row >= 0) {
+            int[] styles = rowStyles.get(attribute);
+            if (styles != null && row < styles.length && styles[row] != NOT_EVALUATED) {
+                return styles[row] == NO_MATCH ? null : rules.get(styles[row] - 1);
+            }
+        }
+        return rules.get(rules.match(value));
+    }
+
+    /**
+     * The target is held weakly, recycled or discarded cells don't have to unregister
+     */
+    public void register(String attribute, Target target) {
+        targets.computeIfAbsent(attribute, name -> Collections.newSetFromMap(new WeakHashMap<>())).add(target);
+    }
+
+    public void unregister(String attribute, Target target) {
+        Set<Target> attributeTargets = targets.get(attribute);
+        if (attributeTargets != null) {
+            attributeTargets.remove(target);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not valid for the comparator, e.g. a wrong regular expression
+     */
+    public void addHighlighting(String attribute, ValueComparator comparator, String value) {
         Pair<String, String> colors = getTwoRandomColors();
-        getCriteria(attribute).add(0, new Criteria(value, ValueComparator.EQ, colors.getKey(), colors.getValue()));
+        getCriteria(attribute).add(0, new Criteria(value, comparator, colors.getKey(), colors.getValue()));
+    }
+
+    public void addEqHighlighting(String attribute, String value) {
+        addHighlighting(attribute, ValueComparator.EQ, value);
     }
 
     public void setEqHighlighting(String attribute, String value) {
@@ -204,6 +307,90 @@ public class Highlighter {
         attributeCriteria.values().forEach(List::clear);
     }
 
+    private void reindex(String attribute, List<Criteria> criteria) {
+        Rules previous = Objects.requireNonNullElse(attributeRules.get(attribute), Rules.EMPTY);
+        Rules rules = new Rules(List.copyOf(criteria));
+        attributeRules.put(attribute, rules);
+        if (rules.hasPatterns()) {
+            rowStyles.put(attribute, new int[0]);
+            evaluate(rows, List.of(attribute));
+        } else {
+            rowStyles.remove(attribute);
+        }
+
+        Set<Target> attributeTargets = targets.get(attribute);
+        if (attributeTargets == null) {
+            return;
+        }
+        Predicate<String> affected;
+        if (previous.hasPatterns() || rules.hasPatterns()) {
+            affected = value -> true;
+        } else {
+            // only the values of the added or removed criteria change their style
+            Set<String> values = new HashSet<>();
+            rules.equalities.keySet().stream().filter(value -> previous.equalTo(value) != rules.equalTo(value)).forEach(values::add);
+            previous.equalities.keySet().stream().filter(value -> !rules.equalities.containsKey(value)).forEach(values::add);
+            affected = value -> values.contains(Utils.trimToBlank(value));
+        }
+        List.copyOf(attributeTargets).forEach(target -> {
+            String value = target.getHighlightedValue();
+            if (value != null && affected.test(value)) {
+                target.highlight(rules.get(rules.match(value)));
+            }
+        });
+    }
+
+    /**
+     * Matches the rows against the rules of the attributes on the cpu executor,
+     * the positions of the matched criteria are stored by the ui executor
+     */
+    private void evaluate(List<? extends EnhancedDocument> documents, Collection<String> attributes) {
+        Map<String, Rules> snapshot = new HashMap<>();
+        attributes.forEach(attribute -> snapshot.put(attribute, attributeRules.get(attribute)));
+        List<StoredDocument> page = documents.stream()
+                .filter(StoredDocument.class::isInstance)
+                .map(StoredDocument.class::cast)
+                .toList();
+        if (snapshot.isEmpty() || page.isEmpty()) {
+            return;
+        }
+
+        long generation = rowsGeneration;
+        CompletableFuture
+                .supplyAsync(() -> match(page, snapshot), cpuExecutor)
+                .thenAcceptAsync(matches -> {
+                    if (generation != rowsGeneration) {
+                        return;
+                    }
+                    matches.forEach((attribute, positions) -> {
+                        int[] styles = rowStyles.get(attribute);
+                        if (styles == null || attributeRules.get(attribute) != snapshot.get(attribute)) {
+                            return;
+                        }
+                        int last = page.stream().mapToInt(StoredDocument::getIndex).max().orElse(0);
+                        if (styles.length <= last) {
+                            styles = Arrays.copyOf(styles, Math.max(last + 1, styles.length * 2));
+                            rowStyles.put(attribute, styles);
+                        }
+                        for (int i = 0; i < positions.length; i++) {
+                            styles[page.get(i).getIndex()] = positions[i] < 0 ? NO_MATCH : positions[i] + 1;
+                        }
+                    });
+                }, uiExecutor);
+    }
+
+    private static Map<String, int[]> match(List<StoredDocument> page, Map<String, Rules> snapshot) {
+        Map<String, int[]> matches = new HashMap<>();
+        snapshot.forEach((attribute, rules) -> {
+            int[] positions = new int[page.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = rules.match(page.get(i).display(attribute));
+            }
+            matches.put(attribute, positions);
+        });
+        return matches;
+    }
+
     // hsb brightness http://alienryderflex.com/hsp.html
     private static double getBrightness(Color color) {
         double r = color.getRed();
@@ -226,16 +413,31 @@ public class Highlighter {
         private final ValueComparator comparator;
         private final String textColor;
         private final String backgroundColor;
+        private final Predicate<String> matcher;
+        private final String style;
 
+        /**
+         * @throws IllegalArgumentException if the value is not valid for the comparator
+         */
         public Criteria(String value, ValueComparator comparator, String textColor, String backgroundColor) {
             this.value = value;
             this.comparator = comparator;
             this.textColor = textColor;
             this.backgroundColor = backgroundColor;
+            this.matcher = comparator.compile(value);
+            this.style = String.format("-fx-background-color: %1s; -fx-text-fill: %2s", backgroundColor, textColor);
         }
 
         public boolean match(String another) {
-            return comparator.getComparator().compare(value, another) == 0;
+            return matcher.test(another);
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public ValueComparator getComparator() {
+            return comparator;
         }
 
         public String getTextColor() {
@@ -245,22 +447,141 @@ public class Highlighter {
         public String getBackgroundColor() {
             return backgroundColor;
         }
+
+        /**
+         * @return css style of a highlighted cell
+         */
+        public String getStyle() {
+            return style;
+        }
+    }
+
+    /**
+     * Cell which shows a value of the attribute
+     */
+    public interface Target {
+
+        String getHighlightedValue();
+
+        /**
+         * @param criteria null removes the highlighting
+         */
+        void highlight(Criteria criteria);
+    }
+
+    /**
+     * Criteria of an attribute in the order of priority, equality is looked up by the trimmed value,
+     * the other criteria are tested one by one
+     */
+    private static class Rules {
+
+        private static final Rules EMPTY = new Rules(List.of());
+
+        private final List<Criteria> criteria;
+        private final Map<String, Integer> equalities = new HashMap<>();
+        private final int[] patterns;
+
+        private Rules(List<Criteria> criteria) {
+            this.criteria = criteria;
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < criteria.size(); i++) {
+                if (criteria.get(i).getComparator() == ValueComparator.EQ) {
+                    equalities.putIfAbsent(Utils.trimToBlank(criteria.get(i).getValue()), i);
+                } else {
+                    positions.add(i);
+                }
+            }
+            this.patterns = positions.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private boolean hasPatterns() {
+            return patterns.length > 0;
+        }
+
+        /**
+         * @return position of the first matching criteria, -1 if nothing matches
+         */
+        private int match(String value) {
+            int position = equalities.isEmpty() ? Integer.MAX_VALUE : equalities.getOrDefault(Utils.trimToBlank(value), Integer.MAX_VALUE);
+            for (int pattern : patterns) {
+                if (pattern > position) {
+                    break;
+                }
+                if (criteria.get(pattern).match(value)) {
+                    return pattern;
+                }
+            }
+            return position == Integer.MAX_VALUE ? -1 : position;
+        }
+
+        private Criteria get(int position) {
+            return position < 0 ? null : criteria.get(position);
+        }
+
+        private Criteria equalTo(String value) {
+            return get(equalities.getOrDefault(value, -1));
+        }
     }
 
     public enum ValueComparator {
 
-        EQ((o1, o2) -> {
-            return Utils.trimToBlank(o1).compareTo(Utils.trimToBlank(o2));
+        EQ("equals", value -> {
+            String expected = Utils.trimToBlank(value);
+            return another -> expected.equals(Utils.trimToBlank(another));
+        }),
+        PREFIX("begins with", value -> another -> another != null && another.startsWith(value)),
+        CONTAINS("contains", value -> another -> another != null && another.contains(value)),
+        REGEX("matches regex", value -> {
+            Pattern pattern = Pattern.compile(value);
+            return another -> another != null && pattern.matcher(another).find();
+        }),
+        RANGE("number in range from..to", value -> {
+            int separator = value.indexOf("..");
+            if (separator < 0) {
+                throw new IllegalArgumentException("Range must look like from..to: " + value);
+            }
+            BigDecimal from = parseBound(value.substring(0, separator));
+            BigDecimal to = parseBound(value.substring(separator + 2));
+            return another -> {
+                BigDecimal number = parseNumber(another);
+                return number != null
+                        && (from == null || number.compareTo(from) >= 0)
+                        && (to == null || number.compareTo(to) <= 0);
+            };
         });
 
-        private final Comparator<String> comparator;
+        private final String title;
+        private final Function<String, Predicate<String>> compiler;
 
-        ValueComparator(Comparator<String> comparator) {
-            this.comparator = comparator;
+        ValueComparator(String title, Function<String, Predicate<String>> compiler) {
+            this.title = title;
+            this.compiler = compiler;
         }
 
-        public Comparator<String> getComparator() {
-            return comparator;
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the value is not valid for the comparator
+         */
+        public Predicate<String> compile(String value) {
+            return compiler.apply(Objects.requireNonNullElse(value, ""));
+        }
+
+        private static BigDecimal parseBound(String bound) {
+            return bound.isBlank() ? null : new BigDecimal(bound.trim());
+        }
+
+        private static BigDecimal parseNumber(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return new BigDecimal(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
         }
     }
 
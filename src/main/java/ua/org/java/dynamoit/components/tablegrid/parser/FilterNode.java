@@ -0,0 +1,51 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser;
+
+import java.util.List;
+
+/**
+ * Parsed filter of one attribute, the attribute itself is implied by the column of the filter
+ */
+public sealed interface FilterNode {
+
+    enum Operator {
+        EQUALS, NOT_EQUALS, GREATER, GREATER_OR_EQUALS, LESS, LESS_OR_EQUALS, BETWEEN, IN,
+        BEGINS_WITH, CONTAINS, NOT_CONTAINS, EXISTS, NOT_EXISTS, TYPE
+    }
+
+    record Or(List<FilterNode> nodes) implements FilterNode {
+    }
+
+    record And(List<FilterNode> nodes) implements FilterNode {
+    }
+
+    record Not(FilterNode node) implements FilterNode {
+    }
+
+    /**
+     * @param size     the operator is applied to the size of the attribute instead of its value
+     * @param operands values as they are typed, without quotes
+     */
+    record Condition(Operator operator, boolean size, List<String> operands) implements FilterNode {
+
+        public Condition(Operator operator, String... operands) {
+            this(operator, false, List.of(operands));
+        }
+    }
+
+}
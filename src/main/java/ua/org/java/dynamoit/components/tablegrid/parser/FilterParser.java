@@ -0,0 +1,422 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser;
+
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive descent parser of the filter of one attribute.
+ * <pre>
+ * filter    := or
+ * or        := and ("or" and)*
+ * and       := unary ("and" unary)*
+ * unary     := "not" "(" or ")" | "(" or ")" | condition
+ * condition := "^" term | "~" term | "!~" term | "$" | "!$" | "!=" term | "=" term
+ *            | ("&gt;" | "&gt;=" | "&lt;" | "&lt;=") term | "between" term "and" term | "in" "(" term ("," term)* ")"
+ *            | "size" ["()"] (comparison | "between" term "and" term) | "type" "(" name ")" | term
+ * term      := quoted string | text up to the next "and", "or", closing parenthesis or a comma in a list
+ * </pre>
+ * Keywords are case insensitive. A condition without a value, like a single "^" being typed, is skipped.
+ * A text which is not a valid filter, like "smile :)", is matched as a plain value by {@link #parseOrLiteral}.
+ */
+public final class FilterParser {
+
+    private final String text;
+    private int position;
+
+    private FilterParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @return null if the filter has no conditions
+     * @throws FilterSyntaxException if the text can't be parsed
+     */
+    public static FilterNode parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        FilterParser parser = new FilterParser(text);
+        FilterNode node = parser.or();
+        parser.skipWhitespaces();
+        if (!parser.isEnd()) {
+            throw new FilterSyntaxException("Unexpected '" + text.charAt(parser.position) + "'", parser.position);
+        }
+        return node;
+    }
+
+    /**
+     * Same as {@link #parse}, but a text which can't be parsed is an equality to the whole trimmed text
+     *
+     * @return null if the filter has no conditions
+     */
+    public static FilterNode parseOrLiteral(String text) {
+        try {
+            return parse(text);
+        } catch (FilterSyntaxException e) {
+            return new Condition(Operator.EQUALS, text.trim());
+        }
+    }
+
+    private FilterNode or() {
+        FilterNode first = and();
+        List<FilterNode> nodes = null;
+        while (keyword("or")) {
+            if (nodes == null) {
+                nodes = new ArrayList<>();
+                add(nodes, first);
+            }
+            add(nodes, and());
+        }
+        return nodes == null ? first : combine(nodes, false);
+    }
+
+    private FilterNode and() {
+        FilterNode first = unary();
+        List<FilterNode> nodes = null;
+        while (keyword("and")) {
+            if (nodes == null) {
+                nodes = new ArrayList<>();
+                add(nodes, first);
+            }
+            add(nodes, unary());
+        }
+        return nodes == null ? first : combine(nodes, true);
+    }
+
+    private FilterNode unary() {
+        skipWhitespaces();
+        int start = position;
+        if (keyword("not")) {
+            skipWhitespaces();
+            if (peek() == '(') {
+                FilterNode node = group();
+                return node == null ? null : new Not(node);
+            }
+            // a value which starts with the word
+            position = start;
+        }
+        if (peek() == '(') {
+            return group();
+        }
+        return condition();
+    }
+
+    private FilterNode group() {
+        int start = position;
+        position++;
+        FilterNode node = or();
+        skipWhitespaces();
+        if (peek() != ')') {
+            throw new FilterSyntaxException("Missing ')' for '('", start);
+        }
+        position++;
+        return node;
+    }
+
+    private FilterNode condition() {
+        skipWhitespaces();
+        if (consume("!~")) {
+            return condition(Operator.NOT_CONTAINS, term(false));
+        }
+        if (consume("!=")) {
+            return condition(Operator.NOT_EQUALS, term(false));
+        }
+        if (symbol("!$")) {
+            return new Condition(Operator.NOT_EXISTS);
+        }
+        if (symbol("$")) {
+            return new Condition(Operator.EXISTS);
+        }
+        if (consume("^")) {
+            return condition(Operator.BEGINS_WITH, term(false));
+        }
+        if (consume("~")) {
+            return condition(Operator.CONTAINS, term(false));
+        }
+        Operator comparison = comparison();
+        if (comparison != null) {
+            return condition(comparison, term(false));
+        }
+
+        int start = position;
+        if (keyword("between")) {
+            return between(false);
+        }
+        if (keyword("in")) {
+            skipWhitespaces();
+            if (peek() == '(') {
+                return in();
+            }
+            position = start;
+        }
+        if (keyword("size")) {
+            FilterNode size = size();
+            if (size != null) {
+                return size;
+            }
+            position = start;
+        }
+        if (keyword("type")) {
+            skipWhitespaces();
+            if (peek() == '(') {
+                return type();
+            }
+            position = start;
+        }
+        return condition(Operator.EQUALS, term(false));
+    }
+
+    private FilterNode between(boolean size) {
+        String from = term(false);
+        if (!keyword("and")) {
+            throw new FilterSyntaxException("Missing 'and' of 'between'", position);
+        }
+        String to = term(false);
+        if (from.isEmpty() || to.isEmpty()) {
+            return null;
+        }
+        return new Condition(Operator.BETWEEN, size, List.of(from, to));
+    }
+
+    private FilterNode in() {
+        int start = position;
+        position++;
+        List<String> values = new ArrayList<>();
+        while (true) {
+            String value = term(true);
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+            skipWhitespaces();
+            if (consume(",")) {
+                continue;
+            }
+            if (consume(")")) {
+                break;
+            }
+            throw new FilterSyntaxException("Missing ')' for 'in ('", start);
+        }
+        return values.isEmpty() ? null : new Condition(Operator.IN, false, values);
+    }
+
+    /**
+     * @return null if the word is not followed by a comparison, it is a value then
+     */
+    private FilterNode size() {
+        skipWhitespaces();
+        if (consume("(")) {
+            skipWhitespaces();
+            if (!consume(")")) {
+                throw new FilterSyntaxException("The attribute of 'size' is implied, expected '()'", position);
+            }
+            skipWhitespaces();
+        }
+        if (keyword("between")) {
+            FilterNode between = between(true);
+            if (between instanceof Condition condition) {
+                condition.operands().forEach(this::checkSize);
+            }
+            return between;
+        }
+        Operator comparison = comparison();
+        if (comparison == null) {
+            comparison = consume("!=") ? Operator.NOT_EQUALS : consume("=") ? Operator.EQUALS : null;
+        }
+        if (comparison == null) {
+            return null;
+        }
+        String value = term(false);
+        if (value.isEmpty()) {
+            return null;
+        }
+        checkSize(value);
+        return new Condition(comparison, true, List.of(value));
+    }
+
+    private void checkSize(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                throw new FilterSyntaxException("The size is not a number '" + value + "'", position - value.length());
+            }
+        }
+    }
+
+    private FilterNode type() {
+        position++;
+        String type = term(true);
+        skipWhitespaces();
+        if (!consume(")")) {
+            throw new FilterSyntaxException("Missing ')' for 'type ('", position);
+        }
+        return condition(Operator.TYPE, type);
+    }
+
+    private Operator comparison() {
+        if (consume(">=")) {
+            return Operator.GREATER_OR_EQUALS;
+        }
+        if (consume(">")) {
+            return Operator.GREATER;
+        }
+        if (consume("<=")) {
+            return Operator.LESS_OR_EQUALS;
+        }
+        if (consume("<")) {
+            return Operator.LESS;
+        }
+        if (consume("=")) {
+            return Operator.EQUALS;
+        }
+        return null;
+    }
+
+    private static FilterNode condition(Operator operator, String value) {
+        return value.isEmpty() ? null : new Condition(operator, value);
+    }
+
+    /**
+     * Reads a quoted value or a text until the next keyword or delimiter
+     *
+     * @param inList a comma and a closing parenthesis end the value
+     * @return the value without surrounding whitespaces and quotes, empty if there is no value
+     */
+    private String term(boolean inList) {
+        skipWhitespaces();
+        char quote = peek();
+        if (quote == '"' || quote == '\'') {
+            int start = position;
+            int end = text.indexOf(quote, position + 1);
+            if (end < 0) {
+                throw new FilterSyntaxException("Missing closing " + quote, start);
+            }
+            position = end + 1;
+            return text.substring(start + 1, end);
+        }
+
+        if (isKeywordAhead("and") || isKeywordAhead("or")) {
+            return "";
+        }
+
+        int start = position;
+        int end = position;
+        while (!isEnd()) {
+            char c = text.charAt(position);
+            if (c == ')' || (c == ',' && inList)) {
+                break;
+            }
+            if (Character.isWhitespace(c)) {
+                int whitespace = position;
+                skipWhitespaces();
+                if (isKeywordAhead("and") || isKeywordAhead("or")) {
+                    position = whitespace;
+                    break;
+                }
+                continue;
+            }
+            position++;
+            end = position;
+        }
+        return text.substring(start, end);
+    }
+
+    /**
+     * Consumes the word if it is followed by a whitespace, a parenthesis or the end
+     */
+    private boolean keyword(String word) {
+        skipWhitespaces();
+        if (isKeywordAhead(word)) {
+            position += word.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isKeywordAhead(String word) {
+        int end = position + word.length();
+        return text.regionMatches(true, position, word, 0, word.length())
+                && (end == text.length() || Character.isWhitespace(text.charAt(end)) || text.charAt(end) == '(');
+    }
+
+    /**
+     * Consumes the symbol if it is the whole condition
+     */
+    private boolean symbol(String symbol) {
+        int end = position + symbol.length();
+        if (text.startsWith(symbol, position)) {
+            int next = end;
+            while (next < text.length() && Character.isWhitespace(text.charAt(next))) {
+                next++;
+            }
+            if (next == text.length() || text.charAt(next) == ')' || isKeywordAt(next, "and") || isKeywordAt(next, "or")) {
+                position = end;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isKeywordAt(int index, String word) {
+        int saved = position;
+        position = index;
+        boolean result = isKeywordAhead(word);
+        position = saved;
+        return result;
+    }
+
+    private boolean consume(String symbol) {
+        if (text.startsWith(symbol, position)) {
+            position += symbol.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespaces() {
+        while (!isEnd() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        return isEnd() ? 0 : text.charAt(position);
+    }
+
+    private boolean isEnd() {
+        return position >= text.length();
+    }
+
+    private static void add(List<FilterNode> nodes, FilterNode node) {
+        if (node != null) {
+            nodes.add(node);
+        }
+    }
+
+    private static FilterNode combine(List<FilterNode> nodes, boolean and) {
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        if (nodes.size() == 1) {
+            return nodes.get(0);
+        }
+        return and ? new And(List.copyOf(nodes)) : new Or(List.copyOf(nodes));
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser.expression;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode.Condition;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates a parsed filter against the value of the attribute the way DynamoDB evaluates the filter expression.
+ * <p>
+ * Comparisons require the same type of the value and the operand, numbers are compared as decimals.
+ * A missing attribute matches only negative conditions: not equals, not contains, not exists and negated groups.
+ */
+final class AttributePredicate {
+
+    private AttributePredicate() {
+    }
+
+    /**
+     * @param type type of the attribute, null if unknown
+     * @return predicate of the attribute value, the value is null if the item doesn't have the attribute
+     */
+    static Predicate<AttributeValue> compile(FilterNode node, Attributes.Type type) {
+        return switch (node) {
+            case FilterNode.Or or -> compileAll(or.nodes(), type).stream().reduce(Predicate::or).orElse(value -> false);
+            case FilterNode.And and -> compileAll(and.nodes(), type).stream().reduce(Predicate::and).orElse(value -> true);
+            case FilterNode.Not not -> compile(not.node(), type).negate();
+            case Condition condition -> compile(condition, type);
+        };
+    }
+
+    private static List<Predicate<AttributeValue>> compileAll(List<FilterNode> nodes, Attributes.Type type) {
+        return nodes.stream().map(node -> compile(node, type)).toList();
+    }
+
+    private static Predicate<AttributeValue> compile(Condition condition, Attributes.Type type) {
+        List<Operand> operands = condition.operands().stream()
+                .map(term -> new Operand(condition.size() ? AttributeValue.fromN(term) : CompiledFilter.value(condition.operator(), term, type)))
+                .toList();
+        Function<AttributeValue, AttributeValue> path = condition.size() ? AttributePredicate::size : Function.identity();
+
+        return switch (condition.operator()) {
+            case EQUALS -> value -> equal(path.apply(value), operands.get(0));
+            case NOT_EQUALS -> value -> !equal(path.apply(value), operands.get(0));
+            case GREATER -> value -> compare(path.apply(value), operands.get(0), result -> result > 0);
+            case GREATER_OR_EQUALS -> value -> compare(path.apply(value), operands.get(0), result -> result >= 0);
+            case LESS -> value -> compare(path.apply(value), operands.get(0), result -> result < 0);
+            case LESS_OR_EQUALS -> value -> compare(path.apply(value), operands.get(0), result -> result <= 0);
+            case BETWEEN -> value -> {
+                AttributeValue subject = path.apply(value);
+                return compare(subject, operands.get(0), result -> result >= 0) && compare(subject, operands.get(1), result -> result <= 0);
+            };
+            case IN -> value -> {
+                AttributeValue subject = path.apply(value);
+                return operands.stream().anyMatch(operand -> equal(subject, operand));
+            };
+            case BEGINS_WITH -> value -> value != null && value.s() != null && value.s().startsWith(operands.get(0).value().s());
+            case CONTAINS -> value -> contains(value, operands.get(0));
+            case NOT_CONTAINS -> value -> !contains(value, operands.get(0));
+            case EXISTS -> value -> value != null;
+            case NOT_EXISTS -> value -> value == null;
+            case TYPE -> value -> value != null && typeName(value).equals(operands.get(0).value().s());
+        };
+    }
+
+    private static boolean equal(AttributeValue value, Operand operand) {
+        if (value == null) {
+            return false;
+        }
+        return switch (value.type()) {
+            case S, N, B -> compare(value, operand, result -> result == 0);
+            default -> value.equals(operand.value());
+        };
+    }
+
+    /**
+     * @return false if the value and the operand can't be compared
+     */
+    private static boolean compare(AttributeValue value, Operand operand, IntPredicate result) {
+        if (value == null || value.type() != operand.value().type()) {
+            return false;
+        }
+        return switch (value.type()) {
+            case S -> result.test(value.s().compareTo(operand.value().s()));
+            case N -> result.test(new BigDecimal(value.n()).compareTo(operand.number()));
+            case B -> result.test(Arrays.compareUnsigned(value.b().asByteArrayUnsafe(), operand.value().b().asByteArrayUnsafe()));
+            default -> false;
+        };
+    }
+
+    private static boolean contains(AttributeValue value, Operand operand) {
+        if (value == null) {
+            return false;
+        }
+        return switch (value.type()) {
+            case S -> operand.value().s() != null && value.s().contains(operand.value().s());
+            case SS -> value.ss().contains(operand.value().s());
+            case L -> value.l().stream().anyMatch(element -> equal(element, operand));
+            default -> false;
+        };
+    }
+
+    /**
+     * @return number of characters, bytes or elements, null if the type of the value has no size
+     */
+    private static AttributeValue size(AttributeValue value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.type()) {
+            case S -> AttributeValue.fromN(String.valueOf(value.s().length()));
+            case B -> AttributeValue.fromN(String.valueOf(value.b().asByteArrayUnsafe().length));
+            case SS -> AttributeValue.fromN(String.valueOf(value.ss().size()));
+            case NS -> AttributeValue.fromN(String.valueOf(value.ns().size()));
+            case BS -> AttributeValue.fromN(String.valueOf(value.bs().size()));
+            case L -> AttributeValue.fromN(String.valueOf(value.l().size()));
+            case M -> AttributeValue.fromN(String.valueOf(value.m().size()));
+            default -> null;
+        };
+    }
+
+    /**
+     * @return type name used by the attribute_type function
+     */
+    private static String typeName(AttributeValue value) {
+        return value.type() == AttributeValue.Type.NUL ? "NULL" : value.type().name();
+    }
+
+    /**
+     * Value of the filter, the number is parsed once
+     */
+    private record Operand(AttributeValue value, BigDecimal number) {
+
+        private Operand(AttributeValue value) {
+            this(value, value.n() != null ? new BigDecimal(value.n()) : null);
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser.expression;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode.Condition;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode.Operator;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterParser;
+import ua.org.java.dynamoit.utils.LruCache;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Filter text of an attribute parsed and compiled once.
+ * <p>
+ * The expression is kept as a template with the local placeholders #n for the attribute name and :v0, :v1... for the values,
+ * they are replaced by the placeholders of the whole expression when the filter is rendered.
+ * The same text of attributes with the same type shares one compiled filter.
+ * The filter is compiled into a predicate as well, to filter the loaded items without reading the table.
+ */
+public final class CompiledFilter {
+
+    /**
+     * Number of cached filters, dynamoit.filter.cache system property
+     */
+    public static final int CACHE_SIZE = Integer.getInteger("dynamoit.filter.cache", 1024);
+
+    private static final LruCache<CacheKey, CompiledFilter> CACHE = new LruCache<>(CACHE_SIZE);
+
+    private static final CompiledFilter EMPTY = new CompiledFilter(null, null, List.of(), value -> true);
+
+    /**
+     * Operations which compare a part of a string or a type name, their operand is a string for any attribute type
+     */
+    private static final Set<Operator> STRING_OPERATORS = EnumSet.of(
+            Operator.BEGINS_WITH, Operator.CONTAINS, Operator.NOT_CONTAINS, Operator.TYPE
+    );
+
+    private final FilterNode node;
+    private final String template;
+    private final List<AttributeValue> values;
+    private final Predicate<AttributeValue> predicate;
+
+    private CompiledFilter(FilterNode node, String template, List<AttributeValue> values, Predicate<AttributeValue> predicate) {
+        this.node = node;
+        this.template = template;
+        this.values = values;
+        this.predicate = predicate;
+    }
+
+    /**
+     * @param type type of the attribute, null if unknown
+     * @see FilterParser#parseOrLiteral
+     */
+    public static CompiledFilter of(String text, Attributes.Type type) {
+        if (text == null || text.isBlank()) {
+            return EMPTY;
+        }
+        return CACHE.get(new CacheKey(text, type), key -> compile(key.text(), key.type()));
+    }
+
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static CompiledFilter compile(String text, Attributes.Type type) {
+        FilterNode node = FilterParser.parseOrLiteral(text);
+        if (node == null) {
+            return EMPTY;
+        }
+        List<AttributeValue> values = new ArrayList<>();
+        StringBuilder template = new StringBuilder();
+        compile(node, type, template, values);
+        return new CompiledFilter(node, template.toString(), List.copyOf(values), AttributePredicate.compile(node, type));
+    }
+
+    private static void compile(FilterNode node, Attributes.Type type, StringBuilder template, List<AttributeValue> values) {
+        switch (node) {
+            case FilterNode.Or or -> join(or.nodes(), " OR ", type, template, values);
+            case FilterNode.And and -> join(and.nodes(), " AND ", type, template, values);
+            case FilterNode.Not not -> {
+                template.append("NOT (");
+                compile(not.node(), type, template, values);
+                template.append(')');
+            }
+            case Condition condition -> compile(condition, type, template, values);
+        }
+    }
+
+    private static void join(List<FilterNode> nodes, String operator, Attributes.Type type, StringBuilder template, List<AttributeValue> values) {
+        for (int i = 0; i < nodes.size(); i++) {
+            template.append(i == 0 ? "(" : ")" + operator + "(");
+            compile(nodes.get(i), type, template, values);
+        }
+        template.append(')');
+    }
+
+    private static void compile(Condition condition, Attributes.Type type, StringBuilder template, List<AttributeValue> values) {
+        String path = condition.size() ? "size(#n)" : "#n";
+        List<String> operands = new ArrayList<>(condition.operands().size());
+        for (String operand : condition.operands()) {
+            operands.add(":v" + values.size());
+            values.add(condition.size() ? AttributeValue.fromN(operand) : value(condition.operator(), operand, type));
+        }
+
+        template.append(switch (condition.operator()) {
+            case EQUALS -> path + " = " + operands.get(0);
+            case NOT_EQUALS -> path + " <> " + operands.get(0);
+            case GREATER -> path + " > " + operands.get(0);
+            case GREATER_OR_EQUALS -> path + " >= " + operands.get(0);
+            case LESS -> path + " < " + operands.get(0);
+            case LESS_OR_EQUALS -> path + " <= " + operands.get(0);
+            case BETWEEN -> path + " BETWEEN " + operands.get(0) + " AND " + operands.get(1);
+            case IN -> path + " IN (" + String.join(", ", operands) + ")";
+            case BEGINS_WITH -> "begins_with(#n, " + operands.get(0) + ")";
+            case CONTAINS -> "contains(#n, " + operands.get(0) + ")";
+            case NOT_CONTAINS -> "NOT contains(#n, " + operands.get(0) + ")";
+            case EXISTS -> "attribute_exists(#n)";
+            case NOT_EXISTS -> "attribute_not_exists(#n)";
+            case TYPE -> "attribute_type(#n, " + operands.get(0) + ")";
+        });
+    }
+
+    /**
+     * @param type type of the attribute, null if unknown
+     */
+    static AttributeValue value(Operator operator, String term, Attributes.Type type) {
+        if (operator == Operator.TYPE) {
+            return AttributeValue.fromS(term.toUpperCase(Locale.ROOT));
+        }
+        if (STRING_OPERATORS.contains(operator)) {
+            return AttributeValue.fromS(term);
+        }
+        return Attributes.toAttributeValue(term, type);
+    }
+
+    public boolean isEmpty() {
+        return node == null;
+    }
+
+    /**
+     * @return parsed filter, null if the filter is empty
+     */
+    public FilterNode getNode() {
+        return node;
+    }
+
+    /**
+     * @param value value of the attribute, null if the item doesn't have the attribute
+     * @return true if the item passes the filter, an empty filter matches any value
+     */
+    public boolean matches(AttributeValue value) {
+        return predicate.test(value);
+    }
+
+    /**
+     * @param namePlaceholder  placeholder of the attribute name in the whole expression
+     * @param valuePlaceholder placeholder of the value in the whole expression
+     * @return expression of the attribute, null if the filter is empty
+     */
+    public String render(String namePlaceholder, Function<AttributeValue, String> valuePlaceholder) {
+        if (isEmpty()) {
+            return null;
+        }
+
+        String[] placeholders = new String[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            placeholders[i] = valuePlaceholder.apply(values.get(i));
+        }
+
+        StringBuilder expression = new StringBuilder(template.length() + 16);
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '#' && i + 1 < template.length() && template.charAt(i + 1) == 'n') {
+                expression.append(namePlaceholder);
+                i++;
+            } else if (c == ':' && i + 1 < template.length() && template.charAt(i + 1) == 'v') {
+                int index = 0;
+                int next = i + 2;
+                while (next < template.length() && Character.isDigit(template.charAt(next))) {
+                    index = index * 10 + (template.charAt(next) - '0');
+                    next++;
+                }
+                expression.append(placeholders[index]);
+                i = next - 1;
+            } else {
+                expression.append(c);
+            }
+        }
+        return expression.toString();
+    }
+
+    private record CacheKey(String text, Attributes.Type type) {
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser.expression;
+
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+import ua.org.java.dynamoit.components.tablegrid.store.StoredDocument;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import static ua.org.java.dynamoit.utils.Utils.forEachIndex;
+
+/**
+ * Filters of the attributes evaluated against the loaded documents, a document matches if it passes every filter
+ */
+public final class DocumentFilter implements Predicate<EnhancedDocument> {
+
+    /**
+     * Number of rows from which the rows are evaluated in parallel, dynamoit.filter.parallel system property
+     */
+    public static final int PARALLEL_THRESHOLD = Integer.getInteger("dynamoit.filter.parallel", 100_000);
+
+    private final String[] attributes;
+    private final CompiledFilter[] filters;
+
+    private DocumentFilter(String[] attributes, CompiledFilter[] filters) {
+        this.attributes = attributes;
+        this.filters = filters;
+    }
+
+    /**
+     * @param filters filter text by the attribute name
+     * @param types   types of the attributes
+     */
+    public static DocumentFilter of(Map<String, String> filters, Map<String, Attributes.Type> types) {
+        List<Map.Entry<String, CompiledFilter>> compiled = filters.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), CompiledFilter.of(entry.getValue(), types.get(entry.getKey()))))
+                .filter(entry -> !entry.getValue().isEmpty())
+                .toList();
+        return new DocumentFilter(
+                compiled.stream().map(Map.Entry::getKey).toArray(String[]::new),
+                compiled.stream().map(Map.Entry::getValue).toArray(CompiledFilter[]::new)
+        );
+    }
+
+    public boolean isEmpty() {
+        return filters.length == 0;
+    }
+
+    @Override
+    public boolean test(EnhancedDocument document) {
+        if (document instanceof StoredDocument row) {
+            // read the filtered attributes from the columns instead of rebuilding the item
+            for (int i = 0; i < filters.length; i++) {
+                if (!filters[i].matches(row.attribute(attributes[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Map<String, AttributeValue> item = document.toMap();
+        for (int i = 0; i < filters.length; i++) {
+            if (!filters[i].matches(item.get(attributes[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates the filter for all rows at once, the rows are split into chunks evaluated on the executor
+     *
+     * @return predicate which looks up the result of the evaluated rows and evaluates the others, e.g. rows loaded later
+     */
+    public CompletableFuture<Predicate<EnhancedDocument>> evaluate(List<EnhancedDocument> rows, Executor executor) {
+        boolean[] matches = new boolean[rows.size()];
+        return forEachIndex(rows.size(), executor, i -> matches[i] = test(rows.get(i)))
+                .thenApply(aVoid -> lookUp(rows, matches));
+    }
+
+    private Predicate<EnhancedDocument> lookUp(List<EnhancedDocument> rows, boolean[] matches) {
+        // rows are compared by identity, the equality of documents compares all attributes
+        Map<EnhancedDocument, Boolean> results = new IdentityHashMap<>(rows.size());
+        for (int i = 0; i < matches.length; i++) {
+            results.put(rows.get(i), matches[i]);
+        }
+        return document -> {
+            Boolean match = results.get(document);
+            return match != null ? match : test(document);
+        };
+    }
+
+}
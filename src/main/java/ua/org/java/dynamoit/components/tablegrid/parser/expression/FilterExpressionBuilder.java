@@ -14,104 +14,139 @@
  *     You should have received a copy of the GNU General Public License
  *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
  */
-
 package ua.org.java.dynamoit.components.tablegrid.parser.expression;
 
 import org.apache.commons.lang3.StringUtils;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode.Condition;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode.Operator;
 
-import java.util.Map;
-import java.util.function.BiFunction;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static ua.org.java.dynamoit.utils.Utils.attributeName;
-import static ua.org.java.dynamoit.utils.Utils.attributeValue;
+import java.util.*;
 
+/**
+ * Compiles the filters of the attributes into one filter expression, the filters of different attributes are joined with AND
+ *
+ * @see CompiledFilter
+ */
 public class FilterExpressionBuilder {
 
-    private enum AttributeExpression {
-
-        BEGINS_WITH(Pattern.compile("^\\^(.*)$"), (attrName, attrValue) -> "begins_with(" + attrName + ", " + attrValue + ")"),
-        CONTAINS(Pattern.compile("^~(.*)$"), (attrName, attrValue) -> "contains(" + attrName + ", " + attrValue + ")"),
-        NOT_CONTAINS(Pattern.compile("^!~(.*)$"), (attrName, attrValue) -> "NOT contains(" + attrName + ", " + attrValue + ")"),
-        EXISTS(Pattern.compile("^\\$$"), (attrName, attrValue) -> "attribute_exists(" + attrName + ")"),
-        NOT_EXISTS(Pattern.compile("^!\\$$"), (attrName, attrValue) -> "attribute_not_exists(" + attrName + ")"),
-        NOT_EQUALS(Pattern.compile("^!=(.*)$"), (attrName, attrValue) -> attrName + " <> " + attrValue),
-        EQUALS(Pattern.compile("(.*)"), (attrName, attrValue) -> attrName + " = " + attrValue);
+    /**
+     * Operations which DynamoDB can apply to the sort key in a key condition
+     */
+    private static final Set<Operator> SORT_KEY_OPERATORS = EnumSet.of(
+            Operator.EQUALS, Operator.BEGINS_WITH, Operator.BETWEEN,
+            Operator.GREATER, Operator.GREATER_OR_EQUALS, Operator.LESS, Operator.LESS_OR_EQUALS
+    );
 
-        AttributeExpression(Pattern pattern, BiFunction<String, String, String> attributeValueToExpression) {
-            this.pattern = pattern;
-            this.attributeValueToExpression = attributeValueToExpression;
-        }
+    private final Map<String, Attributes.Type> attributeTypes;
+    private final List<String> expressions = new ArrayList<>();
+    private final PlaceholderAllocator placeholders = new PlaceholderAllocator();
 
-        private final Pattern pattern;
-        private final BiFunction<String, String, String> attributeValueToExpression;
+    public FilterExpressionBuilder() {
+        this(Map.of());
+    }
 
-        public Pattern getPattern() {
-            return pattern;
-        }
+    /**
+     * @param attributeTypes values of the known attributes are bound with their types, others as strings
+     */
+    public FilterExpressionBuilder(Map<String, Attributes.Type> attributeTypes) {
+        this.attributeTypes = attributeTypes;
+    }
 
-        public BiFunction<String, String, String> getAttributeValueToExpression() {
-            return attributeValueToExpression;
-        }
+    public static boolean isEqualExpression(String value) {
+        return condition(value).filter(condition -> condition.operator() == Operator.EQUALS && !condition.size()).isPresent();
     }
 
-    private Expression expression = Expression.builder().build();
+    /**
+     * @return true if the filter of the sort key can be a part of the key condition
+     */
+    public static boolean isSortKeyExpression(String value) {
+        return condition(value).filter(condition -> SORT_KEY_OPERATORS.contains(condition.operator()) && !condition.size()).isPresent();
+    }
 
-    public static boolean isEqualExpression(String value) {
-        if (value != null && !value.isBlank()) {
-            for (AttributeExpression attributeExpression : AttributeExpression.values()) {
-                Matcher matcher = attributeExpression.getPattern().matcher(value.trim());
-                if (matcher.matches()) {
-                    return attributeExpression == AttributeExpression.EQUALS;
-                }
-            }
+    /**
+     * Key condition of a query, so DynamoDB reads only the matching slice of the partition instead of filtering the whole one
+     *
+     * @param hashValue   value of the partition key
+     * @param rangeFilter filter of the sort key, can be null
+     * @return empty if the sort key filter can't be a part of the key condition, it has to be added to the filter expression then
+     */
+    public Optional<QueryConditional> keyConditional(String hashName, String hashValue, String rangeName, String rangeFilter) {
+        // bound the same way as an equality in the filter expression, e.g. without the quotes
+        String hashTerm = condition(hashValue)
+                .filter(condition -> condition.operator() == Operator.EQUALS)
+                .map(condition -> condition.operands().get(0))
+                .orElse(hashValue.trim());
+        AttributeValue partitionValue = value(hashName, Operator.EQUALS, hashTerm);
+        if (StringUtils.isBlank(rangeFilter)) {
+            return Optional.of(QueryConditional.keyEqualTo(Key.builder().partitionValue(partitionValue).build()));
+        }
+        if (!isSortKeyExpression(rangeFilter)) {
+            return Optional.empty();
+        }
 
+        Condition condition = condition(rangeFilter).orElseThrow();
+        if (condition.operator() == Operator.BEGINS_WITH && attributeTypes.getOrDefault(rangeName, Attributes.Type.STRING) != Attributes.Type.STRING) {
+            // the prefix is bound as a string, it fits string keys only
+            return Optional.empty();
         }
-        return false;
+
+        Key key = Key.builder().partitionValue(partitionValue).sortValue(value(rangeName, condition.operator(), condition.operands().get(0))).build();
+        return Optional.of(switch (condition.operator()) {
+            case EQUALS -> QueryConditional.keyEqualTo(key);
+            case BEGINS_WITH -> QueryConditional.sortBeginsWith(key);
+            case GREATER -> QueryConditional.sortGreaterThan(key);
+            case GREATER_OR_EQUALS -> QueryConditional.sortGreaterThanOrEqualTo(key);
+            case LESS -> QueryConditional.sortLessThan(key);
+            case LESS_OR_EQUALS -> QueryConditional.sortLessThanOrEqualTo(key);
+            case BETWEEN -> QueryConditional.sortBetween(key,
+                    Key.builder().partitionValue(partitionValue).sortValue(value(rangeName, condition.operator(), condition.operands().get(1))).build());
+            default -> throw new IllegalStateException("Not a sort key condition " + condition.operator());
+        });
+    }
+
+    /**
+     * @return the filter if it is a single condition
+     */
+    private static Optional<Condition> condition(String value) {
+        return CompiledFilter.of(value, null).getNode() instanceof Condition condition ? Optional.of(condition) : Optional.empty();
     }
 
     public FilterExpressionBuilder addAttributeValue(String attribute, String value) {
-        if (value != null && !value.isBlank()) {
-
-            String attrName = attributeName(attribute);
-            String attrValue = attributeValue(attribute);
-
-            for (AttributeExpression attributeExpression : AttributeExpression.values()) {
-                Matcher matcher = attributeExpression.getPattern().matcher(value.trim());
-                if (matcher.matches()) {
-                    Expression.Builder expBuilder = Expression.builder();
-
-                    // the first group is whole value
-                    if(matcher.groupCount() == 1) {
-                        String term = matcher.group(1);
-                        if (!term.isBlank()) {
-                            expBuilder.expression(attributeExpression.getAttributeValueToExpression().apply(attrName, attrValue))
-                                    .expressionNames(Map.of(attrName, attribute))
-                                    .expressionValues(Map.of(attrValue, AttributeValue.builder().s(term).build())).build();
-                        }
-                    } else {
-                        expBuilder.expression(attributeExpression.getAttributeValueToExpression().apply(attrName, attrValue))
-                                .expressionNames(Map.of(attrName, attribute));
-                    }
-
-                    if (StringUtils.isBlank(expression.expression())) {
-                        expression = expBuilder.build();
-                    } else {
-                        expression = Expression.join(Expression.AND, expression, expBuilder.build());
-                    }
-
-                    break;
-                }
-            }
+        CompiledFilter filter = CompiledFilter.of(value, attributeTypes.get(attribute));
+        if (!filter.isEmpty()) {
+            expressions.add(filter.render(placeholders.name(attribute), placeholders::value));
         }
         return this;
     }
 
+    private AttributeValue value(String attribute, Operator operator, String term) {
+        return CompiledFilter.value(operator, term, attributeTypes.get(attribute));
+    }
+
+    /**
+     * @return the filters of the attributes joined with AND, nested the same way as {@link Expression#join}
+     */
     public Expression build() {
-        return expression;
+        if (expressions.isEmpty()) {
+            return Expression.builder().build();
+        }
+
+        StringBuilder expression = new StringBuilder();
+        expression.append("(".repeat(expressions.size() - 1)).append(expressions.get(0));
+        for (int i = 1; i < expressions.size(); i++) {
+            expression.append(") AND (").append(expressions.get(i)).append(')');
+        }
+
+        return Expression.builder()
+                .expression(expression.toString())
+                .expressionNames(new LinkedHashMap<>(placeholders.getNames()))
+                .expressionValues(placeholders.getValues().isEmpty() ? null : new LinkedHashMap<>(placeholders.getValues()))
+                .build();
     }
 
 }
@@ -0,0 +1,66 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser.expression;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Placeholders of one expression: #a0, #a1... for attribute names and :v0, :v1... for values.
+ * A repeated name or an equal value gets the same placeholder.
+ */
+public class PlaceholderAllocator {
+
+    private final Map<String, String> nameByAttribute = new HashMap<>();
+    private final Map<AttributeValue, String> placeholderByValue = new HashMap<>();
+    private final Map<String, String> names = new LinkedHashMap<>();
+    private final Map<String, AttributeValue> values = new LinkedHashMap<>();
+
+    public String name(String attribute) {
+        return nameByAttribute.computeIfAbsent(attribute, __ -> {
+            String placeholder = "#a" + names.size();
+            names.put(placeholder, attribute);
+            return placeholder;
+        });
+    }
+
+    public String value(AttributeValue value) {
+        return placeholderByValue.computeIfAbsent(value, __ -> {
+            String placeholder = ":v" + values.size();
+            values.put(placeholder, value);
+            return placeholder;
+        });
+    }
+
+    /**
+     * @return attribute names by placeholders in the order of allocation
+     */
+    public Map<String, String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return values by placeholders in the order of allocation
+     */
+    public Map<String, AttributeValue> getValues() {
+        return values;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.planner;
+
+/**
+ * Access path chosen for the current filters
+ *
+ * @param access            scan or query
+ * @param indexName         null for the table itself
+ * @param hashName          partition key of the table or index, null for a scan
+ * @param rangeName         sort key of the table or index if exists
+ * @param fetchBack         the global index does not project all attributes, the items are read again from the table
+ * @param estimatedItems    approximate number of items read
+ * @param estimatedCapacity approximate read capacity units consumed
+ */
+public record QueryPlan(Access access, String indexName, String hashName, String rangeName, boolean fetchBack,
+                        double estimatedItems, double estimatedCapacity) {
+
+    public enum Access {
+        SCAN, QUERY
+    }
+
+    public boolean isScan() {
+        return access == Access.SCAN;
+    }
+
+    public String describe() {
+        String target = indexName == null ? "table" : "index " + indexName;
+        String capacity = Double.isFinite(estimatedCapacity) ? String.format("~%.1f RCU", estimatedCapacity) : "unknown cost";
+        return String.format("%s %s%s, %s", isScan() ? "Scan" : "Query", target, fetchBack ? " + fetch" : "", capacity);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.planner;
+
+import software.amazon.awssdk.services.dynamodb.model.*;
+import ua.org.java.dynamoit.components.tablegrid.parser.expression.FilterExpressionBuilder;
+
+import java.util.*;
+
+import static ua.org.java.dynamoit.utils.Utils.lookUpKeyName;
+
+/**
+ * Chooses the cheapest way to read items matching the filters.
+ * <p>
+ * Every index which partition key has an equality filter can be queried instead of scanning the table.
+ * The cost is estimated from the item count and size reported in the table description:
+ * a query is expected to read a small share of the index, a global index without all attributes projected
+ * reads the found items again from the table. Global indexes which don't project a filtered attribute are skipped.
+ * DynamoDB reads the attributes which are not projected into a local index from the table in the same query.
+ */
+public class QueryPlanner {
+
+    /**
+     * Expected share of items with the same partition key value
+     */
+    static final double PARTITION_SELECTIVITY = 0.001;
+
+    /**
+     * Expected share of the partition items matched by a sort key condition
+     */
+    static final double SORT_KEY_SELECTIVITY = 0.1;
+
+    private static final double READ_UNIT_BYTES = 4096;
+
+    /**
+     * Eventually consistent reads take a half of the read unit
+     */
+    private static final double EVENTUAL_READ_FACTOR = 0.5;
+
+    private final TableDescription tableDescription;
+
+    public QueryPlanner(TableDescription tableDescription) {
+        this.tableDescription = tableDescription;
+    }
+
+    /**
+     * @param filters not blank filter values by attribute names
+     */
+    public QueryPlan plan(Map<String, String> filters) {
+        return cheapest(candidates(filters));
+    }
+
+    /**
+     * @param candidates the first one wins over the others with the same cost
+     */
+    public static QueryPlan cheapest(List<QueryPlan> candidates) {
+        return candidates.stream()
+                .min(Comparator.comparingDouble(QueryPlan::estimatedCapacity))
+                .orElseThrow();
+    }
+
+    /**
+     * @return scan of the table and all possible queries, the table query first
+     */
+    public List<QueryPlan> candidates(Map<String, String> filters) {
+        List<QueryPlan> candidates = new ArrayList<>();
+        String tableHash = lookUpKeyName(tableDescription.keySchema(), KeyType.HASH).orElseThrow();
+        String tableRange = lookUpKeyName(tableDescription.keySchema(), KeyType.RANGE).orElse(null);
+        long tableItems = orZero(tableDescription.itemCount());
+        long tableBytes = orZero(tableDescription.tableSizeBytes());
+
+        if (isEqual(filters, tableHash)) {
+            candidates.add(query(null, tableDescription.keySchema(), filters, tableItems, tableBytes, false, 0));
+        }
+
+        tableDescription.localSecondaryIndexes().forEach(index -> {
+            if (isEqual(filters, tableHash)) {
+                // the attributes which are not projected are fetched by the query itself, there is no extra request
+                boolean fetched = index.projection().projectionType() != ProjectionType.ALL;
+                candidates.add(query(index.indexName(), index.keySchema(), filters, orZero(index.itemCount()), orZero(index.indexSizeBytes()),
+                        false, fetched ? averageSize(tableItems, tableBytes) : 0));
+            }
+        });
+
+        tableDescription.globalSecondaryIndexes().forEach(index -> {
+            Optional<String> indexHash = lookUpKeyName(index.keySchema(), KeyType.HASH);
+            if (indexHash.isPresent() && isEqual(filters, indexHash.get()) && isApplicable(index.projection(), index.keySchema(), filters, tableHash, tableRange)) {
+                boolean fetchBack = index.projection().projectionType() != ProjectionType.ALL;
+                candidates.add(query(index.indexName(), index.keySchema(), filters, orZero(index.itemCount()), orZero(index.indexSizeBytes()),
+                        fetchBack, fetchBack ? averageSize(tableItems, tableBytes) : 0));
+            }
+        });
+
+        // DynamoDB refreshes the counters about every six hours, until then any query is preferred
+        double scanCapacity = tableItems == 0 ? Double.POSITIVE_INFINITY : capacity(tableBytes);
+        candidates.add(new QueryPlan(QueryPlan.Access.SCAN, null, null, null, false, tableItems, scanCapacity));
+        return candidates;
+    }
+
+    /**
+     * @param fetchBack     the found items are read again from the table with BatchGetItem
+     * @param tableItemSize average size of the table items read in addition to the index items, 0 if the index has all attributes
+     */
+    private QueryPlan query(String indexName, List<KeySchemaElement> keySchema, Map<String, String> filters,
+                            long items, long bytes, boolean fetchBack, double tableItemSize) {
+        String hash = lookUpKeyName(keySchema, KeyType.HASH).orElseThrow();
+        String range = lookUpKeyName(keySchema, KeyType.RANGE).orElse(null);
+
+        double selectivity = PARTITION_SELECTIVITY;
+        if (range != null && FilterExpressionBuilder.isSortKeyExpression(filters.get(range))) {
+            selectivity *= SORT_KEY_SELECTIVITY;
+        }
+        double readItems = Math.max(1, items * selectivity);
+        double readCapacity = capacity(readItems * averageSize(items, bytes));
+        if (tableItemSize > 0) {
+            // every item is a separate read of the table, rounded up to the read unit
+            readCapacity += readItems * Math.max(1, Math.ceil(tableItemSize / READ_UNIT_BYTES)) * EVENTUAL_READ_FACTOR;
+        }
+        return new QueryPlan(QueryPlan.Access.QUERY, indexName, hash, range, fetchBack, readItems, readCapacity);
+    }
+
+    /**
+     * The global index can be used if it has every filtered attribute, the table keys are projected into any index
+     */
+    private static boolean isApplicable(Projection projection, List<KeySchemaElement> keySchema, Map<String, String> filters, String tableHash, String tableRange) {
+        if (projection.projectionType() == ProjectionType.ALL) {
+            return true;
+        }
+        Set<String> projected = new HashSet<>(projection.nonKeyAttributes());
+        keySchema.forEach(key -> projected.add(key.attributeName()));
+        projected.add(tableHash);
+        if (tableRange != null) {
+            projected.add(tableRange);
+        }
+        return projected.containsAll(filters.keySet());
+    }
+
+    private static boolean isEqual(Map<String, String> filters, String attribute) {
+        return FilterExpressionBuilder.isEqualExpression(filters.get(attribute));
+    }
+
+    private static double capacity(double bytes) {
+        return Math.max(1, Math.ceil(bytes / READ_UNIT_BYTES)) * EVENTUAL_READ_FACTOR;
+    }
+
+    private static double averageSize(long items, long bytes) {
+        return items == 0 ? 0 : (double) bytes / items;
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Values of one attribute for all rows.
+ * <p>
+ * Every row has a kind byte, booleans and nulls are stored in the kind only. Integer numbers are kept in a long array,
+ * strings and other numbers are dictionary codes in an int array, the rest are kept as attribute values.
+ * The arrays are allocated when the first value of their kind arrives. Rows are appended, later a row only gets
+ * the values of the attributes it has not been read with.
+ * The json text of the other values is computed with the page and kept next to the value, so cells only look it up.
+ */
+final class Column {
+
+    private static final byte MISSING = 0;
+    private static final byte LONG = 1;
+    private static final byte DECIMAL = 2;
+    private static final byte STRING = 3;
+    private static final byte TRUE = 4;
+    private static final byte FALSE = 5;
+    private static final byte NULL = 6;
+    private static final byte OTHER = 7;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String name;
+    private final Dictionary dictionary = new Dictionary();
+    private volatile byte[] kinds = new byte[0];
+    private volatile long[] numbers = new long[0];
+    private volatile int[] codes = new int[0];
+    private volatile AttributeValue[] others = new AttributeValue[0];
+    private volatile String[] displays = new String[0];
+
+    Column(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * @param display text of the value for the {@link #OTHER} kind, see {@link #needsDisplay(AttributeValue)}
+     */
+    void set(int row, AttributeValue value, String display) {
+        byte kind = switch (value.type()) {
+            case N -> isCanonicalLong(value.n()) ? LONG : DECIMAL;
+            case S -> STRING;
+            case BOOL -> Boolean.TRUE.equals(value.bool()) ? TRUE : FALSE;
+            case NUL -> NULL;
+            default -> OTHER;
+        };
+
+        switch (kind) {
+            case LONG -> {
+                numbers = ensureCapacity(numbers, row);
+                numbers[row] = Long.parseLong(value.n());
+            }
+            case DECIMAL -> {
+                codes = ensureCapacity(codes, row);
+                codes[row] = dictionary.encode(value.n());
+            }
+            case STRING -> {
+                codes = ensureCapacity(codes, row);
+                codes[row] = dictionary.encode(value.s());
+            }
+            case OTHER -> {
+                others = ensureCapacity(others, row);
+                others[row] = value;
+                displays = ensureCapacity(displays, row);
+                displays[row] = display;
+            }
+            default -> {
+            }
+        }
+        kinds = ensureCapacity(kinds, row);
+        kinds[row] = kind;
+    }
+
+    /**
+     * @return value of the row, null if the row doesn't have the attribute
+     */
+    AttributeValue get(int row) {
+        return switch (kind(row)) {
+            case LONG -> AttributeValue.fromN(Long.toString(numbers[row]));
+            case DECIMAL -> AttributeValue.fromN(dictionary.decode(codes[row]));
+            case STRING -> AttributeValue.fromS(dictionary.decode(codes[row]));
+            case TRUE -> AttributeValue.fromBool(true);
+            case FALSE -> AttributeValue.fromBool(false);
+            case NULL -> AttributeValue.fromNul(true);
+            case OTHER -> others[row];
+            default -> null;
+        };
+    }
+
+    /**
+     * @return text of the value shown in the grid, empty if the row doesn't have the attribute
+     */
+    String display(int row) {
+        return switch (kind(row)) {
+            case LONG -> Long.toString(numbers[row]);
+            case DECIMAL, STRING -> dictionary.decode(codes[row]);
+            case TRUE -> "true";
+            case FALSE -> "false";
+            case NULL -> "null";
+            case OTHER -> displays[row];
+            default -> "";
+        };
+    }
+
+    /**
+     * @return true if the text of the value is too expensive to compute while the grid is rendered
+     */
+    static boolean needsDisplay(AttributeValue value) {
+        return switch (value.type()) {
+            case N, S, BOOL, NUL -> false;
+            default -> true;
+        };
+    }
+
+    /**
+     * @return json text of the value
+     */
+    static String display(String name, AttributeValue value) {
+        return EnhancedDocument.fromAttributeValueMap(Map.of(name, value)).getJson(name);
+    }
+
+    boolean isPresent(int row) {
+        return kind(row) != MISSING;
+    }
+
+    private byte kind(int row) {
+        byte[] kinds = this.kinds;
+        return row < kinds.length ? kinds[row] : MISSING;
+    }
+
+    /**
+     * @return true if the number is kept exactly by a long, e.g. not 1.5, 007 or -0
+     */
+    static boolean isCanonicalLong(String number) {
+        int start = number.startsWith("-") ? 1 : 0;
+        int digits = number.length() - start;
+        if (digits == 0 || digits > 18) {
+            return false;
+        }
+        if (number.charAt(start) == '0') {
+            return digits == 1 && start == 0;
+        }
+        for (int i = start; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ensureCapacity(byte[] array, int row) {
+        return row < array.length ? array : Arrays.copyOf(array, newCapacity(array.length, row));
+    }
+
+    private static long[] ensureCapacity(long[] array, int row) {
+        return row < array.length ? array : Arrays.copyOf(array, newCapacity(array.length, row));
+    }
+
+    private static int[] ensureCapacity(int[] array, int row) {
+        return row < array.length ? array : Arrays.copyOf(array, newCapacity(array.length, row));
+    }
+
+    private static <T> T[] ensureCapacity(T[] array, int row) {
+        return row < array.length ? array : Arrays.copyOf(array, newCapacity(array.length, row));
+    }
+
+    private static int newCapacity(int capacity, int row) {
+        return Math.max(row + 1, Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1)));
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes strings of a column as int codes, repeated values are stored once.
+ * <p>
+ * Only the first distinct values are deduplicated, the values after the limit are appended as they are,
+ * so a column of unique ids doesn't keep a huge lookup map.
+ */
+final class Dictionary {
+
+    /**
+     * Number of deduplicated values of a column, dynamoit.store.dictionary system property
+     */
+    static final int LIMIT = Integer.getInteger("dynamoit.store.dictionary", 65536);
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        if (codes.size() < LIMIT) {
+            codes.put(value, size);
+        }
+        return size++;
+    }
+
+    String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * @return number of deduplicated values
+     */
+    int distinct() {
+        return codes.size();
+    }
+
+}
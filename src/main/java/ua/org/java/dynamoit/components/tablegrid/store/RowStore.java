@@ -0,0 +1,246 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static ua.org.java.dynamoit.utils.Utils.forEachIndex;
+
+/**
+ * Loaded rows of the table grid stored by columns.
+ * <p>
+ * The attribute names are kept once per column, the documents are split into the columns when a page arrives
+ * and rows are kept as small {@link StoredDocument} handles. A full document is rebuilt only when it's needed,
+ * e.g. to edit or to delete the item.
+ * <p>
+ * A page is prepared off the ui thread, then its rows are appended from the ui thread. Rows can be read from any thread.
+ * <p>
+ * The projection can be widened while the rows are loaded, every row keeps the projection it has been read with,
+ * so the attributes it misses can be read later by its key and set to the row.
+ */
+public final class RowStore {
+
+    private final Map<String, Column> columns = new ConcurrentHashMap<>();
+    private final List<Column> orderedColumns = new CopyOnWriteArrayList<>();
+    private final Map<EnhancedDocument, Set<String>> receivedProjections = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final List<Set<String>> rowProjections = new ArrayList<>();
+    private volatile Set<String> projection;
+    private int size;
+
+    public RowStore() {
+        this(Set.of());
+    }
+
+    /**
+     * @param projection attributes the rows were read with, empty if the rows are full items
+     */
+    public RowStore(Set<String> projection) {
+        this.projection = Set.copyOf(projection);
+    }
+
+    public Set<String> getProjection() {
+        return projection;
+    }
+
+    public boolean isProjected() {
+        return !projection.isEmpty();
+    }
+
+    /**
+     * Adds the attributes to the projection of the rows which are read from now on, called from the ui thread
+     */
+    public void addProjection(Collection<String> attributes) {
+        Set<String> widened = new LinkedHashSet<>(projection);
+        widened.addAll(attributes);
+        projection = Set.copyOf(widened);
+    }
+
+    /**
+     * Keeps the projection the items of a page have been read with until the items are prepared
+     */
+    public void received(List<EnhancedDocument> items, Set<String> projection) {
+        items.forEach(item -> receivedProjections.put(item, projection));
+    }
+
+    /**
+     * @return projection the item has been read with, empty if it's a full item
+     */
+    public Set<String> receivedProjection(EnhancedDocument item) {
+        return Objects.requireNonNullElse(receivedProjections.remove(item), Set.of());
+    }
+
+    /**
+     * Splits the documents into the attribute values and computes the text of the complex values, the documents are processed
+     * in chunks on the executor. The attribute types of the page are folded into the schema.
+     */
+    public static CompletableFuture<Page> prepare(List<EnhancedDocument> documents, SchemaTracker schema, Executor executor) {
+        return prepare(documents, document -> Set.of(), schema, executor);
+    }
+
+    /**
+     * @param readWith projection every document has been read with, empty if the document is a full item
+     */
+    public static CompletableFuture<Page> prepare(List<EnhancedDocument> documents, Function<EnhancedDocument, Set<String>> readWith,
+                                                  SchemaTracker schema, Executor executor) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(documents.size());
+        List<Set<String>> projections = new ArrayList<>(documents.size());
+        documents.forEach(document -> {
+            items.add(document.toMap());
+            projections.add(readWith.apply(document));
+        });
+
+        List<Map<String, String>> displays = new ArrayList<>(Collections.nCopies(items.size(), Map.of()));
+        return forEachIndex(items.size(), executor, i -> {
+            Map<String, String> rowDisplays = new HashMap<>();
+            items.get(i).forEach((name, value) -> {
+                if (Column.needsDisplay(value)) {
+                    rowDisplays.put(name, Column.display(name, value));
+                }
+            });
+            displays.set(i, rowDisplays);
+        }).thenApply(aVoid -> new Page(items, List.copyOf(displays), types(items, schema), projections));
+    }
+
+    /**
+     * @return type of every attribute of the items after they are folded into the schema, in the order the attributes are met
+     */
+    private static Map<String, Attributes.Type> types(List<Map<String, AttributeValue>> items, SchemaTracker schema) {
+        schema.fold(items);
+        Map<String, Attributes.Type> types = new LinkedHashMap<>();
+        items.forEach(item -> item.keySet().forEach(name -> types.computeIfAbsent(name, schema::getType)));
+        return types;
+    }
+
+    /**
+     * @return handles of the appended rows
+     */
+    public List<EnhancedDocument> addAll(Page page) {
+        List<EnhancedDocument> rows = new ArrayList<>(page.items().size());
+        for (int i = 0; i < page.items().size(); i++) {
+            int row = size++;
+            set(row, page, i);
+            rowProjections.add(page.projections().get(i));
+            rows.add(new StoredDocument(this, row));
+        }
+        return rows;
+    }
+
+    /**
+     * Sets the attributes of the page to the rows which have been appended already, e.g. the attributes read by the keys of the rows
+     *
+     * @param rows rows of this store in the order of the page items
+     */
+    public void set(List<StoredDocument> rows, Page page) {
+        for (int i = 0; i < rows.size(); i++) {
+            set(rows.get(i).getIndex(), page, i);
+        }
+    }
+
+    private void set(int row, Page page, int item) {
+        Map<String, String> displays = page.displays().get(item);
+        page.items().get(item).forEach((name, value) -> column(name).set(row, value, displays.get(name)));
+    }
+
+    /**
+     * Takes the rows which have not been read with the whole projection, the rows count as read with it from now on,
+     * so a row is read once when the projection is widened again meanwhile
+     *
+     * @return rows of this store by the attributes of the projection they miss
+     */
+    public Map<Set<String>, List<StoredDocument>> takeUnread(List<? extends EnhancedDocument> rows) {
+        Set<String> current = projection;
+        Map<Set<String>, List<StoredDocument>> unread = new LinkedHashMap<>();
+        for (EnhancedDocument document : rows) {
+            if (!(document instanceof StoredDocument row) || row.getIndex() >= rowProjections.size()) {
+                continue;
+            }
+            Set<String> readWith = rowProjections.get(row.getIndex());
+            if (readWith.isEmpty() || readWith.containsAll(current)) {
+                continue;
+            }
+            Set<String> missing = new LinkedHashSet<>(current);
+            missing.removeAll(readWith);
+            unread.computeIfAbsent(Set.copyOf(missing), attributes -> new ArrayList<>()).add(row);
+            rowProjections.set(row.getIndex(), current);
+        }
+        return unread;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Column column(String name) {
+        Column column = columns.get(name);
+        if (column == null) {
+            column = new Column(name);
+            columns.put(name, column);
+            orderedColumns.add(column);
+        }
+        return column;
+    }
+
+    AttributeValue get(int row, String attribute) {
+        Column column = columns.get(attribute);
+        return column != null ? column.get(row) : null;
+    }
+
+    String display(int row, String attribute) {
+        Column column = columns.get(attribute);
+        return column != null ? column.display(row) : "";
+    }
+
+    boolean isPresent(int row, String attribute) {
+        Column column = columns.get(attribute);
+        return column != null && column.isPresent(row);
+    }
+
+    /**
+     * @return attributes of the row in the order the attributes were first loaded
+     */
+    Map<String, AttributeValue> item(int row) {
+        Map<String, AttributeValue> item = new LinkedHashMap<>();
+        for (Column column : orderedColumns) {
+            AttributeValue value = column.get(row);
+            if (value != null) {
+                item.put(column.name(), value);
+            }
+        }
+        return Collections.unmodifiableMap(item);
+    }
+
+    /**
+     * Documents of a page ready to be appended
+     *
+     * @param displays    text of the complex values by the attribute name for every document
+     * @param types       type of every attribute of the page by all rows folded into the schema so far
+     * @param projections projection every document has been read with, empty if the document is a full item
+     */
+    public record Page(List<Map<String, AttributeValue>> items, List<Map<String, String>> displays, Map<String, Attributes.Type> types,
+                       List<Set<String>> projections) {
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+
+import java.util.*;
+
+/**
+ * Running histogram of the attribute types of the loaded rows.
+ * <p>
+ * Every page is folded into the counters of the attributes, the type of an attribute is its most frequent type.
+ * Only new attributes and attributes whose type has changed are reported, so a page of known attributes changes nothing.
+ */
+public final class SchemaTracker {
+
+    private final Map<String, Histogram> attributes = new HashMap<>();
+
+    /**
+     * @return attributes which are new or whose type has changed, in the order they are met
+     */
+    public synchronized Map<String, Attributes.Type> fold(List<Map<String, AttributeValue>> items) {
+        Map<String, Attributes.Type> changes = new LinkedHashMap<>();
+        for (Map<String, AttributeValue> item : items) {
+            for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+                Histogram histogram = attributes.get(entry.getKey());
+                if (histogram == null) {
+                    histogram = new Histogram();
+                    attributes.put(entry.getKey(), histogram);
+                }
+                if (histogram.add(Attributes.typeOf(entry.getValue()))) {
+                    changes.put(entry.getKey(), histogram.type);
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return the most frequent type of the attribute, null if it has not been met
+     */
+    public synchronized Attributes.Type getType(String attribute) {
+        Histogram histogram = attributes.get(attribute);
+        return histogram != null ? histogram.type : null;
+    }
+
+    /**
+     * @return all types met for the attribute
+     */
+    public synchronized Set<Attributes.Type> getTypes(String attribute) {
+        Set<Attributes.Type> types = EnumSet.noneOf(Attributes.Type.class);
+        Histogram histogram = attributes.get(attribute);
+        if (histogram != null) {
+            for (Attributes.Type type : Attributes.Type.values()) {
+                if (histogram.counts[type.ordinal()] > 0) {
+                    types.add(type);
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @return true if the attribute has values of different types
+     */
+    public boolean isMixed(String attribute) {
+        return getTypes(attribute).size() > 1;
+    }
+
+    private static class Histogram {
+
+        private final int[] counts = new int[Attributes.Type.values().length];
+        private Attributes.Type type;
+
+        /**
+         * @return true if the most frequent type has changed
+         */
+        private boolean add(Attributes.Type valueType) {
+            int count = ++counts[valueType.ordinal()];
+            if (type == null || valueType != type && count > counts[type.ordinal()]) {
+                type = valueType;
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.core.SdkNumber;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverterProvider;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Row of the {@link RowStore}, the single values are read from the columns directly,
+ * the other methods work with the document rebuilt from the columns.
+ * <p>
+ * Rows are equal only to themselves, so lookups in the lists of rows don't compare the attributes.
+ */
+public final class StoredDocument implements EnhancedDocument {
+
+    private final RowStore store;
+    private final int row;
+
+    StoredDocument(RowStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    /**
+     * @return position of the row in the order the rows were loaded
+     */
+    public int getIndex() {
+        return row;
+    }
+
+    /**
+     * @return true if the row was read with a projection and has only some attributes of the item
+     */
+    public boolean isProjected() {
+        return store.isProjected();
+    }
+
+    /**
+     * @return value of the attribute, null if the row doesn't have it
+     */
+    public AttributeValue attribute(String attributeName) {
+        return store.get(row, attributeName);
+    }
+
+    /**
+     * @return text of the attribute shown in the grid
+     */
+    public String display(String attributeName) {
+        return store.display(row, attributeName);
+    }
+
+    private EnhancedDocument document() {
+        return EnhancedDocument.fromAttributeValueMap(toMap());
+    }
+
+    @Override
+    public Builder toBuilder() {
+        return document().toBuilder();
+    }
+
+    @Override
+    public boolean isNull(String attributeName) {
+        AttributeValue value = attribute(attributeName);
+        return value == null || Boolean.TRUE.equals(value.nul());
+    }
+
+    @Override
+    public boolean isPresent(String attributeName) {
+        return store.isPresent(row, attributeName);
+    }
+
+    @Override
+    public <T> T get(String attributeName, EnhancedType<T> type) {
+        return document().get(attributeName, type);
+    }
+
+    @Override
+    public <T> T get(String attributeName, Class<T> clazz) {
+        return document().get(attributeName, clazz);
+    }
+
+    @Override
+    public String getString(String attributeName) {
+        return document().getString(attributeName);
+    }
+
+    @Override
+    public SdkNumber getNumber(String attributeName) {
+        return document().getNumber(attributeName);
+    }
+
+    @Override
+    public SdkBytes getBytes(String attributeName) {
+        return document().getBytes(attributeName);
+    }
+
+    @Override
+    public Set<String> getStringSet(String attributeName) {
+        return document().getStringSet(attributeName);
+    }
+
+    @Override
+    public Set<SdkNumber> getNumberSet(String attributeName) {
+        return document().getNumberSet(attributeName);
+    }
+
+    @Override
+    public Set<SdkBytes> getBytesSet(String attributeName) {
+        return document().getBytesSet(attributeName);
+    }
+
+    @Override
+    public <T> List<T> getList(String attributeName, EnhancedType<T> type) {
+        return document().getList(attributeName, type);
+    }
+
+    @Override
+    public <K, V> Map<K, V> getMap(String attributeName, EnhancedType<K> keyType, EnhancedType<V> valueType) {
+        return document().getMap(attributeName, keyType, valueType);
+    }
+
+    @Override
+    public String getJson(String attributeName) {
+        return document().getJson(attributeName);
+    }
+
+    @Override
+    public Boolean getBoolean(String attributeName) {
+        return document().getBoolean(attributeName);
+    }
+
+    @Override
+    public List<AttributeValue> getListOfUnknownType(String attributeName) {
+        return document().getListOfUnknownType(attributeName);
+    }
+
+    @Override
+    public Map<String, AttributeValue> getMapOfUnknownType(String attributeName) {
+        return document().getMapOfUnknownType(attributeName);
+    }
+
+    @Override
+    public String toJson() {
+        return document().toJson();
+    }
+
+    @Override
+    public Map<String, AttributeValue> toMap() {
+        return store.item(row);
+    }
+
+    @Override
+    public List<AttributeConverterProvider> attributeConverterProviders() {
+        return document().attributeConverterProviders();
+    }
+
+}
@@ -21,6 +21,7 @@ import dagger.Module;
 import dagger.Provides;
 import ua.org.java.dynamoit.services.DynamoDbClientRegistry;
 import ua.org.java.dynamoit.services.DynamoDbService;
+import ua.org.java.dynamoit.utils.AppExecutors;
 
 import javax.inject.Singleton;
 
@@ -29,8 +30,8 @@ public class DynamoDBModule {
 
     @Provides
     @Singleton
-    public static DynamoDbService dynamoDBService(DynamoDbClientRegistry registry) {
-        return new DynamoDbService(registry);
+    public static DynamoDbService dynamoDBService(DynamoDbClientRegistry registry, AppExecutors executors) {
+        return new DynamoDbService(registry, executors.io());
     }
 
     @Provides
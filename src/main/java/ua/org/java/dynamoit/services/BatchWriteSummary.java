@@ -0,0 +1,57 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.services;
+
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch write
+ *
+ * @param succeeded        number of processed items
+ * @param retries          number of times items were sent again after they were unprocessed or throttled
+ * @param consumedCapacity write capacity units consumed by all requests
+ * @param failures         items which were not written
+ */
+public record BatchWriteSummary(int succeeded, int retries, double consumedCapacity, List<Failure> failures) {
+
+    /**
+     * @param request put or delete request of the item
+     * @param reason  the last error or the reason to give up
+     */
+    public record Failure(WriteRequest request, String reason) {
+    }
+
+    public int failed() {
+        return failures.size();
+    }
+
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    public String describe() {
+        String description = String.format("%d of %d items written, %d retries, %.1f WCU consumed",
+                succeeded, succeeded + failed(), retries, consumedCapacity);
+        if (!isComplete()) {
+            description += ". " + failed() + " items failed, first reason: " + failures.getFirst().reason();
+        }
+        return description;
+    }
+
+}
@@ -0,0 +1,317 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.services;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes items with BatchWriteItem requests at the rate the table can sustain.
+ * <p>
+ * The number of requests in flight is limited and every request takes write capacity units from a token bucket.
+ * The rate of the bucket follows AIMD: it grows by a small step after every fully processed request
+ * and is halved when DynamoDB returns unprocessed items or throttles the request.
+ * <p>
+ * Every item is tracked separately: unprocessed or throttled puts and deletes are queued again
+ * until they are written or run out of attempts, a failed request fails only its own items.
+ */
+public class BatchWriter {
+
+    private static final Logger LOG = Logger.getLogger(BatchWriter.class.getName());
+
+    /**
+     * Maximum number of items for one batch write request
+     */
+    public static final int BATCH_SIZE = 25;
+
+    /**
+     * Default number of batch requests in flight, can be changed with the dynamoit.write.concurrency system property
+     */
+    public static final int DEFAULT_CONCURRENCY = Integer.getInteger("dynamoit.write.concurrency", 8);
+
+    /**
+     * Default number of times an item is sent before it is reported as failed
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+
+    private static final double ON_DEMAND_INITIAL_RATE = 1000;
+    private static final double ON_DEMAND_MAX_RATE = 40000;
+    private static final double MIN_RATE = 1;
+    private static final double INCREASE_FACTOR = 0.05;
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long CONSUMPTION_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final DynamoDbClient dbClient;
+    private final String tableName;
+    private final Executor executor;
+    private final TokenBucket tokenBucket;
+    private final double maxRate;
+    private final Deque<double[]> consumption = new ArrayDeque<>();
+    private volatile int maxConcurrency = DEFAULT_CONCURRENCY;
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private volatile double unitsPerItem = 1;
+    private long lastDecreaseNanos;
+
+    /**
+     * @param tableDescription the rate is sized from the provisioned write capacity or the on-demand mode of the table
+     */
+    public BatchWriter(DynamoDbClient dbClient, TableDescription tableDescription, Executor executor) {
+        this.dbClient = dbClient;
+        this.tableName = tableDescription.tableName();
+        this.executor = executor;
+
+        if (isOnDemand(tableDescription)) {
+            this.maxRate = ON_DEMAND_MAX_RATE;
+            this.tokenBucket = new TokenBucket(ON_DEMAND_INITIAL_RATE);
+        } else {
+            this.maxRate = Math.max(MIN_RATE, tableDescription.provisionedThroughput().writeCapacityUnits());
+            this.tokenBucket = new TokenBucket(maxRate);
+        }
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * @return current write rate limit in WCU per second
+     */
+    public double getRateLimit() {
+        return tokenBucket.getRate();
+    }
+
+    /**
+     * @return write capacity units consumed per second during the last seconds
+     */
+    public synchronized double getConsumedPerSecond() {
+        pruneConsumption(System.nanoTime());
+        double units = consumption.stream().mapToDouble(value -> value[1]).sum();
+        return units * TimeUnit.SECONDS.toNanos(1) / CONSUMPTION_WINDOW_NANOS;
+    }
+
+    /**
+     * Write all requests and wait until every item is either written or failed
+     *
+     * @param requests put or delete requests for the table
+     * @return counters and the items which were not written
+     */
+    public BatchWriteSummary write(List<WriteRequest> requests) {
+        int concurrency = maxConcurrency;
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<WriteItem> items = requests.stream().map(WriteItem::new).toList();
+        Deque<WriteItem> pending = new ConcurrentLinkedDeque<>(items);
+        WriteCounters counters = new WriteCounters();
+
+        try {
+            while (true) {
+                List<WriteItem> batch = pollBatch(pending);
+                if (batch.isEmpty()) {
+                    // wait for the requests in flight, they can return unprocessed items
+                    inFlight.acquire(concurrency);
+                    inFlight.release(concurrency);
+                    if (pending.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+
+                inFlight.acquire();
+                tokenBucket.acquire(batch.size() * unitsPerItem);
+                batch.forEach(item -> item.state = ItemState.IN_FLIGHT);
+                executor.execute(() -> {
+                    try {
+                        execute(batch, pending, counters);
+                    } catch (RuntimeException e) {
+                        LOG.log(Level.WARNING, "Batch write failed", e);
+                        batch.forEach(item -> item.fail(e.getMessage()));
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            inFlight.acquire(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch write has been interrupted", e);
+        }
+
+        // an item left in another state has not been confirmed, e.g. its task died with an Error
+        List<BatchWriteSummary.Failure> failures = items.stream()
+                .filter(item -> item.state != ItemState.SUCCEEDED)
+                .map(item -> new BatchWriteSummary.Failure(item.request, item.state == ItemState.FAILED ? item.error : "not written, " + item.state))
+                .toList();
+        int succeeded = (int) items.stream().filter(item -> item.state == ItemState.SUCCEEDED).count();
+        return new BatchWriteSummary(succeeded, counters.retries.get(), counters.consumedCapacity.sum(), failures);
+    }
+
+    private void execute(List<WriteItem> batch, Deque<WriteItem> pending, WriteCounters counters) {
+        batch.forEach(item -> item.attempts++);
+        BatchWriteItemResponse response;
+        try {
+            response = dbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                    .requestItems(Map.of(tableName, batch.stream().map(item -> item.request).toList()))
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build());
+        } catch (AwsServiceException e) {
+            if (isThrottling(e)) {
+                LOG.fine(() -> "Batch write is throttled: " + e.getMessage());
+                decreaseRate();
+                batch.forEach(item -> retry(item, "throttled: " + e.getMessage(), pending, counters));
+                return;
+            }
+            throw e;
+        }
+
+        // unprocessed requests are returned as copies, match them by value
+        Set<WriteRequest> unprocessed = new HashSet<>(response.unprocessedItems().getOrDefault(tableName, List.of()));
+        double units = response.consumedCapacity().stream()
+                .mapToDouble(capacity -> Optional.ofNullable(capacity.capacityUnits()).orElse(0.0))
+                .sum();
+        counters.consumedCapacity.add(units);
+        recordConsumption(units, batch.size() - unprocessed.size());
+
+        for (WriteItem item : batch) {
+            if (unprocessed.contains(item.request)) {
+                retry(item, "unprocessed", pending, counters);
+            } else {
+                item.state = ItemState.SUCCEEDED;
+            }
+        }
+
+        if (unprocessed.isEmpty()) {
+            increaseRate();
+        } else {
+            LOG.fine(() -> String.format("%d of %d items are unprocessed", unprocessed.size(), batch.size()));
+            decreaseRate();
+        }
+    }
+
+    private void retry(WriteItem item, String reason, Deque<WriteItem> pending, WriteCounters counters) {
+        if (item.attempts >= maxAttempts) {
+            item.fail(String.format("%s after %d attempts", reason, item.attempts));
+            return;
+        }
+        item.state = ItemState.RETRIED;
+        counters.retries.incrementAndGet();
+        pending.addLast(item);
+    }
+
+    private synchronized void recordConsumption(double units, int processedItems) {
+        long now = System.nanoTime();
+        consumption.addLast(new double[]{now, units});
+        pruneConsumption(now);
+        if (processedItems > 0 && units > 0) {
+            // moving average of the item size in capacity units
+            unitsPerItem = Math.max(1, 0.8 * unitsPerItem + 0.2 * units / processedItems);
+        }
+    }
+
+    private void pruneConsumption(long now) {
+        while (!consumption.isEmpty() && now - consumption.peekFirst()[0] > CONSUMPTION_WINDOW_NANOS) {
+            consumption.removeFirst();
+        }
+    }
+
+    private void increaseRate() {
+        double rate = tokenBucket.getRate();
+        if (rate < maxRate) {
+            tokenBucket.setRate(Math.min(maxRate, rate + Math.max(1, maxRate * INCREASE_FACTOR)));
+        }
+    }
+
+    private synchronized void decreaseRate() {
+        long now = System.nanoTime();
+        // requests in flight report the same congestion, react once per interval
+        if (now - lastDecreaseNanos >= DECREASE_INTERVAL_NANOS) {
+            lastDecreaseNanos = now;
+            tokenBucket.setRate(Math.max(MIN_RATE, tokenBucket.getRate() * DECREASE_FACTOR));
+        }
+    }
+
+    private static List<WriteItem> pollBatch(Deque<WriteItem> pending) {
+        List<WriteItem> batch = new ArrayList<>(BATCH_SIZE);
+        for (WriteItem item = pending.pollFirst(); item != null; item = pending.pollFirst()) {
+            batch.add(item);
+            if (batch.size() == BATCH_SIZE) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    private static boolean isThrottling(AwsServiceException e) {
+        return e.isThrottlingException()
+                || e instanceof ProvisionedThroughputExceededException
+                || e instanceof RequestLimitExceededException;
+    }
+
+    private static boolean isOnDemand(TableDescription tableDescription) {
+        return tableDescription.billingModeSummary() != null && tableDescription.billingModeSummary().billingMode() == BillingMode.PAY_PER_REQUEST
+                || tableDescription.provisionedThroughput() == null
+                || tableDescription.provisionedThroughput().writeCapacityUnits() == null
+                || tableDescription.provisionedThroughput().writeCapacityUnits() == 0;
+    }
+
+
+    /**
+     * PENDING -> IN_FLIGHT -> SUCCEEDED or FAILED, unprocessed items go IN_FLIGHT -> RETRIED -> IN_FLIGHT
+     */
+    enum ItemState {
+        PENDING, IN_FLIGHT, RETRIED, SUCCEEDED, FAILED
+    }
+
+    private static class WriteItem {
+
+        private final WriteRequest request;
+        private volatile ItemState state = ItemState.PENDING;
+        private volatile int attempts;
+        private volatile String error;
+
+        private WriteItem(WriteRequest request) {
+            this.request = request;
+        }
+
+        private void fail(String error) {
+            this.error = error;
+            this.state = ItemState.FAILED;
+        }
+    }
+
+    private static class WriteCounters {
+        private final AtomicInteger retries = new AtomicInteger();
+        private final DoubleAdder consumedCapacity = new DoubleAdder();
+    }
+
+}
@@ -20,8 +20,11 @@ package ua.org.java.dynamoit.services;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import ua.org.java.dynamoit.model.profile.LocalProfileDetails;
 import ua.org.java.dynamoit.model.profile.PreconfiguredProfileDetails;
@@ -39,24 +42,11 @@ public class DynamoDbClientRegistry {
 
     private final Map<Integer, DynamoDbClient> profileDynamoDBClientMap = new HashMap<>();
     private final Map<Integer, DynamoDbEnhancedClient> profileDocumentClientMap = new HashMap<>();
+    private final Map<Integer, DynamoDbAsyncClient> profileAsyncClientMap = new HashMap<>();
+    private final Map<Integer, DynamoDbEnhancedAsyncClient> profileAsyncDocumentClientMap = new HashMap<>();
 
     public DynamoDbClient getOrCreateDynamoDBClient(ProfileDetails profileDetails) {
-        return profileDynamoDBClientMap.computeIfAbsent(profileDetails.hashCode(), __ -> switch (profileDetails) {
-            case PreconfiguredProfileDetails p -> DynamoDbClient.builder()
-                    .credentialsProvider(ProfileCredentialsProvider.create(p.getName()))
-                    .region(Region.of(p.getRegion()))
-                    .build();
-            case LocalProfileDetails p -> DynamoDbClient.builder()
-                    .endpointOverride(URI.create(p.getEndPoint()))
-                    .region(Region.EU_CENTRAL_1)
-                    .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("fakeAccessKey", "fakeSecretKey")))
-                    .build();
-            case RemoteProfileDetails p -> DynamoDbClient.builder()
-                    .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(p.getAccessKeyId(), p.getSecretKey())))
-                    .region(Region.of(p.getRegion()))
-                    .build();
-            default -> throw new RuntimeException("That profile details is not supported");
-        });
+        return profileDynamoDBClientMap.computeIfAbsent(profileDetails.hashCode(), __ -> configure(DynamoDbClient.builder(), profileDetails).build());
     }
 
     public DynamoDbEnhancedClient getOrCreateDocumentClient(ProfileDetails profileDetails) {
@@ -65,4 +55,33 @@ public class DynamoDbClientRegistry {
                 .build());
     }
 
+    /**
+     * Non-blocking client, requests don't hold a thread while waiting for the response
+     */
+    public DynamoDbAsyncClient getOrCreateDynamoDBAsyncClient(ProfileDetails profileDetails) {
+        return profileAsyncClientMap.computeIfAbsent(profileDetails.hashCode(), __ -> configure(DynamoDbAsyncClient.builder(), profileDetails).build());
+    }
+
+    public DynamoDbEnhancedAsyncClient getOrCreateAsyncDocumentClient(ProfileDetails profileDetails) {
+        return profileAsyncDocumentClientMap.computeIfAbsent(profileDetails.hashCode(), key -> DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(getOrCreateDynamoDBAsyncClient(profileDetails))
+                .build());
+    }
+
+    private static <B extends AwsClientBuilder<B, ?>> B configure(B builder, ProfileDetails profileDetails) {
+        return switch (profileDetails) {
+            case PreconfiguredProfileDetails p -> builder
+                    .credentialsProvider(ProfileCredentialsProvider.create(p.getName()))
+                    .region(Region.of(p.getRegion()));
+            case LocalProfileDetails p -> builder
+                    .endpointOverride(URI.create(p.getEndPoint()))
+                    .region(Region.EU_CENTRAL_1)
+                    .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("fakeAccessKey", "fakeSecretKey")));
+            case RemoteProfileDetails p -> builder
+                    .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(p.getAccessKeyId(), p.getSecretKey())))
+                    .region(Region.of(p.getRegion()));
+            default -> throw new RuntimeException("That profile details is not supported");
+        };
+    }
+
 }
@@ -23,13 +23,16 @@ import ua.org.java.dynamoit.model.profile.ProfileDetails;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class DynamoDbService {
 
     private final DynamoDbClientRegistry dbClientRegistry;
+    private final Executor ioExecutor;
 
-    public DynamoDbService(DynamoDbClientRegistry dbClientRegistry) {
+    public DynamoDbService(DynamoDbClientRegistry dbClientRegistry, Executor ioExecutor) {
         this.dbClientRegistry = dbClientRegistry;
+        this.ioExecutor = ioExecutor;
     }
 
     public CompletableFuture<List<String>> getListOfTables(ProfileDetails profileDetails) {
@@ -44,7 +47,7 @@ public class DynamoDbService {
                     .forEachRemaining(listTablesResponse -> tableNames.addAll(listTablesResponse.tableNames()));
 
             return tableNames;
-        });
+        }, ioExecutor);
     }
 
 }
@@ -17,12 +17,7 @@
 
 package ua.org.java.dynamoit.services;
 
-import io.reactivex.Flowable;
-import io.reactivex.schedulers.Schedulers;
-import software.amazon.awssdk.enhanced.dynamodb.*;
-import software.amazon.awssdk.enhanced.dynamodb.document.DocumentTableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
-import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.*;
 import ua.org.java.dynamoit.model.profile.ProfileDetails;
@@ -31,30 +26,27 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-import java.util.function.BiConsumer;
-import java.util.function.BiFunction;
-import java.util.stream.Stream;
+import java.util.concurrent.Executor;
 
 import static ua.org.java.dynamoit.utils.Utils.getHashKey;
 import static ua.org.java.dynamoit.utils.Utils.getRangeKey;
 
 public class DynamoDbTableService {
 
-    private static final int BATCH_SIZE = 25;
-    private static final int BASE_DELAY_MS = 100;
-
     private TableDescription tableDescription;
-    private DynamoDbTable<EnhancedDocument> table;
+    private BatchWriter batchWriter;
     private final DynamoDbClient dbClient;
-    private final DynamoDbEnhancedClient enhancedClient;
     private final String tableName;
+    private final Executor writeExecutor;
 
     private static final Map<Integer, DynamoDbTableService> INSTANCES = new HashMap<>();
 
-    public static DynamoDbTableService getOrCreate(ProfileDetails profileDetails, String tableName, DynamoDbClientRegistry dbClientRegistry) {
+    /**
+     * @param writeExecutor runs the batch write requests
+     */
+    public static DynamoDbTableService getOrCreate(ProfileDetails profileDetails, String tableName, DynamoDbClientRegistry dbClientRegistry, Executor writeExecutor) {
         return INSTANCES.computeIfAbsent((profileDetails.toString() + tableName).hashCode(), integer -> {
-            DynamoDbTableService service = new DynamoDbTableService(dbClientRegistry.getOrCreateDynamoDBClient(profileDetails), dbClientRegistry.getOrCreateDocumentClient(profileDetails), tableName);
+            DynamoDbTableService service = new DynamoDbTableService(dbClientRegistry.getOrCreateDynamoDBClient(profileDetails), tableName, writeExecutor);
 
             service.init();
 
@@ -62,73 +54,43 @@ public class DynamoDbTableService {
         });
     }
 
-    private DynamoDbTableService(DynamoDbClient dbClient, DynamoDbEnhancedClient enhancedClient, String tableName) {
+    private DynamoDbTableService(DynamoDbClient dbClient, String tableName, Executor writeExecutor) {
         this.dbClient = dbClient;
-        this.enhancedClient = enhancedClient;
         this.tableName = tableName;
+        this.writeExecutor = writeExecutor;
     }
 
     public void init() {
         tableDescription = dbClient.describeTable(DescribeTableRequest.builder().tableName(tableName).build()).table();
-        buildTableScheme();
+        batchWriter = new BatchWriter(dbClient, tableDescription, writeExecutor);
     }
 
     public TableDescription getTableDescription() {
         return this.tableDescription;
     }
 
-    public void save(List<EnhancedDocument> documents) {
-        batchWriteFunction(documents, WriteBatch.Builder::addPutItem);
+    public BatchWriteSummary save(List<EnhancedDocument> documents) {
+        return batchWriter.write(documents.stream()
+                .map(document -> WriteRequest.builder().putRequest(r -> r.item(document.toMap())).build())
+                .toList());
     }
 
-    public void delete(List<EnhancedDocument> documents) {
-        batchWriteFunction(documents, WriteBatch.Builder::addDeleteItem);
+    public BatchWriteSummary delete(List<EnhancedDocument> documents) {
+        return batchWriter.write(documents.stream()
+                .map(document -> WriteRequest.builder().deleteRequest(r -> r.key(keyOf(document))).build())
+                .toList());
     }
 
-    private void batchWriteFunction(List<EnhancedDocument> documents, BiConsumer<WriteBatch.Builder<EnhancedDocument>, EnhancedDocument> documentConsumer) {
-        BiFunction<List<EnhancedDocument>, Integer, List<EnhancedDocument>> executeBatchFunction = (batch, tryCount) -> Flowable.fromIterable(batch)
-                .buffer(BATCH_SIZE)
-                .map(list -> {
-                    WriteBatch.Builder<EnhancedDocument> writeBatchBuilder = WriteBatch.builder(EnhancedDocument.class).mappedTableResource(table);
-                    list.forEach(doc -> documentConsumer.accept(writeBatchBuilder, doc));
-
-                    return writeBatchBuilder.build();
-                })
-                .delay(Double.valueOf(BASE_DELAY_MS * Math.pow(2, tryCount)).longValue(), TimeUnit.MILLISECONDS)
-                .parallel()
-                .runOn(Schedulers.io())
-                .map(wb -> enhancedClient.batchWriteItem(r -> r.writeBatches(wb)))
-                .flatMap(result -> Flowable.fromIterable(result.unprocessedPutItemsForTable(table)))
-                .sequential()
-                .toList()
-                .blockingGet();
-
-        int tryCount = 0;
-
-        for(List<EnhancedDocument> docs = documents; !docs.isEmpty(); tryCount++) {
-            docs = executeBatchFunction.apply(docs, tryCount);
-        }
+    public BatchWriter getBatchWriter() {
+        return batchWriter;
     }
 
-
-    private void buildTableScheme() {
-        DocumentTableSchema.Builder schemaBuilder = TableSchema.documentSchemaBuilder()
-                .addIndexPartitionKey(TableMetadata.primaryIndexName(), hash(), AttributeValueType.S);
-
-        range().ifPresent(key -> schemaBuilder.addIndexSortKey(TableMetadata.primaryIndexName(), key, AttributeValueType.S));
-
-        getFullProjectedIndexes()
-                .forEach(indexDescription -> {
-                    indexDescription.keySchema().forEach(key -> {
-                        if (key.keyType() == KeyType.HASH) {
-                            schemaBuilder.addIndexPartitionKey(indexDescription.indexName(), key.attributeName(), AttributeValueType.S);
-                        } else if (key.keyType() == KeyType.RANGE) {
-                            schemaBuilder.addIndexSortKey(indexDescription.indexName(), key.attributeName(), AttributeValueType.S);
-                        }
-                    });
-                });
-
-        table = enhancedClient.table(tableName, schemaBuilder.build());
+    private Map<String, AttributeValue> keyOf(EnhancedDocument document) {
+        Map<String, AttributeValue> item = document.toMap();
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(hash(), item.get(hash()));
+        range().ifPresent(range -> key.put(range, item.get(range)));
+        return key;
     }
 
     private String hash() {
@@ -139,10 +101,4 @@ public class DynamoDbTableService {
         return getRangeKey(tableDescription);
     }
 
-    private Stream<GlobalSecondaryIndexDescription> getFullProjectedIndexes() {
-        return tableDescription.globalSecondaryIndexes()
-                .stream()
-                .filter(indexDescription -> indexDescription.projection().projectionType() == ProjectionType.ALL);
-    }
-
 }
@@ -0,0 +1,83 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.services;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter which refills tokens continuously with the given rate per second.
+ * The bucket holds at most one second of tokens. A request bigger than the available tokens
+ * is let through once the bucket is not in debt, so the average rate is kept for any request size.
+ */
+public class TokenBucket {
+
+    private final LongSupplier nanoClock;
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double rate) {
+        this(rate, System::nanoTime);
+    }
+
+    TokenBucket(double rate, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.rate = rate;
+        this.tokens = rate;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    public synchronized void setRate(double rate) {
+        refill();
+        this.rate = rate;
+        this.tokens = Math.min(tokens, rate);
+    }
+
+    /**
+     * Take tokens without waiting
+     *
+     * @param permits number of tokens
+     * @return nanoseconds to wait before the next attempt, 0 if tokens are taken
+     */
+    public synchronized long tryAcquire(double permits) {
+        refill();
+        if (tokens >= 0) {
+            tokens -= permits;
+            return 0;
+        }
+        return Math.max(1, (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    public void acquire(double permits) throws InterruptedException {
+        for (long waitNanos = tryAcquire(permits); waitNanos > 0; waitNanos = tryAcquire(permits)) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(rate, tokens + (now - lastRefillNanos) * rate / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+    }
+
+}
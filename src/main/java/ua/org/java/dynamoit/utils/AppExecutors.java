@@ -0,0 +1,76 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.utils;
+
+import java.util.List;
+
+/**
+ * Separate pools for the kinds of background work, so a long export does not hold the threads
+ * which load tables of another profile.
+ * <p>
+ * Sizes can be changed with the dynamoit.io.threads, dynamoit.cpu.threads, dynamoit.transfer.threads and dynamoit.write.threads system properties,
+ * -Ddynamoit.io.virtual=true runs network calls on virtual threads.
+ */
+public class AppExecutors {
+
+    private final MonitoredExecutor io;
+    private final MonitoredExecutor cpu;
+    private final MonitoredExecutor transfer;
+    private final MonitoredExecutor write;
+
+    public AppExecutors() {
+        this.io = Boolean.getBoolean("dynamoit.io.virtual")
+                ? MonitoredExecutor.virtual("io")
+                : MonitoredExecutor.fixed("io", Integer.getInteger("dynamoit.io.threads", 32));
+        this.cpu = MonitoredExecutor.fixed("cpu", Integer.getInteger("dynamoit.cpu.threads", Runtime.getRuntime().availableProcessors()));
+        this.transfer = MonitoredExecutor.fixed("transfer", Integer.getInteger("dynamoit.transfer.threads", 4));
+        this.write = MonitoredExecutor.fixed("write", Integer.getInteger("dynamoit.write.threads", 8));
+    }
+
+    /**
+     * Blocking network calls to DynamoDB and AWS configuration
+     */
+    public MonitoredExecutor io() {
+        return io;
+    }
+
+    /**
+     * Json conversion, diffing and other computations
+     */
+    public MonitoredExecutor cpu() {
+        return cpu;
+    }
+
+    /**
+     * Long running export, import and bulk delete, they wait for the io tasks they start
+     */
+    public MonitoredExecutor transfer() {
+        return transfer;
+    }
+
+    /**
+     * Batch write requests of the imports and bulk deletes, a separate pool so the transfers can't take all io threads
+     */
+    public MonitoredExecutor write() {
+        return write;
+    }
+
+    public List<MonitoredExecutor> all() {
+        return List.of(io, cpu, transfer, write);
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams dynamodb documents as plain json, the output is the same as {@link software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument#toJson()}
+ * and the input is read the same way as {@link software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument#fromJson(String)}
+ * but without building intermediate strings or trees.
+ */
+public final class DocumentJson {
+
+    private DocumentJson() {
+    }
+
+    public static void writeItem(JsonGenerator generator, Map<String, AttributeValue> item) throws IOException {
+        generator.writeStartObject();
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            writeValue(generator, entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    public static void writeValue(JsonGenerator generator, AttributeValue value) throws IOException {
+        switch (value.type()) {
+            case S -> generator.writeString(value.s());
+            case N -> generator.writeNumber(value.n());
+            case B -> generator.writeBinary(value.b().asByteArrayUnsafe());
+            case BOOL -> generator.writeBoolean(value.bool());
+            case SS -> {
+                generator.writeStartArray();
+                for (String s : value.ss()) {
+                    generator.writeString(s);
+                }
+                generator.writeEndArray();
+            }
+            case NS -> {
+                generator.writeStartArray();
+                for (String n : value.ns()) {
+                    generator.writeNumber(n);
+                }
+                generator.writeEndArray();
+            }
+            case BS -> {
+                generator.writeStartArray();
+                for (SdkBytes b : value.bs()) {
+                    generator.writeBinary(b.asByteArrayUnsafe());
+                }
+                generator.writeEndArray();
+            }
+            case L -> {
+                generator.writeStartArray();
+                for (AttributeValue element : value.l()) {
+                    writeValue(generator, element);
+                }
+                generator.writeEndArray();
+            }
+            case M -> writeItem(generator, value.m());
+            default -> generator.writeNull();
+        }
+    }
+
+    /**
+     * Read the object the parser is pointing at
+     *
+     * @param parser parser positioned on the START_OBJECT token
+     * @return attributes of the document
+     */
+    public static Map<String, AttributeValue> readItem(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Json object is expected but found " + parser.currentToken());
+        }
+        Map<String, AttributeValue> item = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            item.put(name, readValue(parser));
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unexpected end of the json object");
+        }
+        return item;
+    }
+
+    public static AttributeValue readValue(JsonParser parser) throws IOException {
+        if (parser.currentToken() == null) {
+            throw new JsonParseException(parser, "Unexpected end of the json input");
+        }
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> AttributeValue.fromS(parser.getText());
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> AttributeValue.fromN(parser.getText());
+            case VALUE_TRUE -> AttributeValue.fromBool(true);
+            case VALUE_FALSE -> AttributeValue.fromBool(false);
+            case VALUE_NULL -> AttributeValue.fromNul(true);
+            case START_OBJECT -> AttributeValue.fromM(readItem(parser));
+            case START_ARRAY -> {
+                List<AttributeValue> list = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    list.add(readValue(parser));
+                }
+                yield AttributeValue.fromL(list);
+            }
+            default -> throw new JsonParseException(parser, "Unexpected token " + parser.currentToken());
+        };
+    }
+
+}
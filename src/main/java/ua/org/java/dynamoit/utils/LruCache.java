@@ -0,0 +1,97 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache which evicts the least recently used entries.
+ * <p>
+ * Hits only update the access tick of the entry, there is no global lock.
+ * The eviction scans the entries and runs only when a new entry exceeds the capacity.
+ */
+public class LruCache<K, V> {
+
+    private final int capacity;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong ticks = new AtomicLong();
+
+    public LruCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * @param loader creates the value if it is not cached, null values are not cached
+     */
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            V value = loader.apply(key);
+            if (value == null) {
+                return null;
+            }
+            entry = new Entry<>(value, ticks.incrementAndGet());
+            Entry<V> existing = entries.putIfAbsent(key, entry);
+            if (existing != null) {
+                entry = existing;
+            } else if (entries.size() > capacity) {
+                evict();
+            }
+        }
+        entry.lastAccess = ticks.incrementAndGet();
+        return entry.value;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evict() {
+        while (entries.size() > capacity) {
+            K oldest = null;
+            long oldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                if (entry.getValue().lastAccess < oldestAccess) {
+                    oldestAccess = entry.getValue().lastAccess;
+                    oldest = entry.getKey();
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private volatile long lastAccess;
+
+        private Entry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+}
@@ -30,6 +30,7 @@ import javafx.scene.input.KeyEvent;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.core.SdkField;
 import software.amazon.awssdk.core.protocol.MarshallingType;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
@@ -48,13 +49,18 @@ import software.amazon.awssdk.services.dynamodb.model.KeyType;
 import software.amazon.awssdk.services.dynamodb.model.TableDescription;
 import software.amazon.awssdk.thirdparty.jackson.core.JsonFactory;
 import software.amazon.awssdk.utils.StringUtils;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
 import ua.org.java.dynamoit.components.tablegrid.parser.expression.FilterExpressionBuilder;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -70,10 +76,33 @@ public class Utils {
             .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
             .setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
 
+    /**
+     * Number of chunks of {@link #forEachIndex}
+     */
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
     public static <T> Stream<T> asStream(Iterable<T> iterable) {
         return StreamSupport.stream(iterable.spliterator(), false);
     }
 
+    /**
+     * Runs the action for every index in chunks on the executor, the caller doesn't wait for the chunks
+     * so it can't starve the pool it runs on
+     *
+     * @return completed when every index has been processed
+     */
+    public static CompletableFuture<Void> forEachIndex(int size, Executor executor, IntConsumer action) {
+        int chunkSize = Math.max(1, (size + PARALLELISM - 1) / PARALLELISM);
+        CompletableFuture<?>[] chunks = IntStream.iterate(0, from -> from < size, from -> from + chunkSize)
+                .mapToObj(from -> CompletableFuture.runAsync(() -> {
+                    for (int i = from, to = Math.min(size, from + chunkSize); i < to; i++) {
+                        action.accept(i);
+                    }
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(chunks);
+    }
+
     public static boolean isHashKey(String attributeName, TableDescription tableDescription) {
         return tableDescription.keySchema().stream()
                 .anyMatch(keySchemaElement -> keySchemaElement.attributeName().equals(attributeName)
@@ -94,6 +123,21 @@ public class Utils {
         return lookUpKeyName(tableDescription.keySchema(), KeyType.RANGE);
     }
 
+    /**
+     * @return type of the key attribute from the attribute definitions of the table, string if not defined
+     */
+    public static AttributeValueType keyAttributeType(TableDescription tableDescription, String attributeName) {
+        return tableDescription.attributeDefinitions().stream()
+                .filter(definition -> definition.attributeName().equals(attributeName))
+                .findFirst()
+                .map(definition -> switch (definition.attributeType()) {
+                    case N -> AttributeValueType.N;
+                    case B -> AttributeValueType.B;
+                    default -> AttributeValueType.S;
+                })
+                .orElse(AttributeValueType.S);
+    }
+
     public static Optional<String> lookUpKeyName(List<KeySchemaElement> keySchemaElements, KeyType keyType) {
         return keySchemaElements.stream()
                 .filter(keySchemaElement -> keySchemaElement.keyType().equals(keyType))
@@ -335,41 +379,37 @@ public class Utils {
      */
     public static QueryEnhancedRequest buildQuerySpec(String hashName, String rangeName,
                                                       Map<String, String> attributeFilterMap, int numberOfDocuments) {
+        return buildQuerySpec(hashName, rangeName, attributeFilterMap, Map.of(), numberOfDocuments);
+    }
+
+    /**
+     * @param attributeTypes values are bound with the types of the attributes, strings if the attribute is not in the map
+     * @see #buildQuerySpec(String, String, Map, int)
+     */
+    public static QueryEnhancedRequest buildQuerySpec(String hashName, String rangeName, Map<String, String> attributeFilterMap,
+                                                      Map<String, Attributes.Type> attributeTypes, int numberOfDocuments) {
         String hashValue = attributeFilterMap.get(hashName);
-        Key.Builder keyBuilder = Key.builder().partitionValue(hashValue);
+        String rangeFilter = rangeName != null ? attributeFilterMap.get(rangeName) : null;
 
-        if (rangeName != null && StringUtils.isNotBlank(attributeFilterMap.get(rangeName))) {
-            String sortValue = attributeFilterMap.get(rangeName);
-            keyBuilder.sortValue(sortValue);
-        }
+        FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder(attributeTypes);
+
+        // the sort key filter goes to the key condition if possible, otherwise it filters the read items
+        Optional<QueryConditional> keyConditional = filterExpressionBuilder.keyConditional(hashName, hashValue, rangeName, rangeFilter);
 
         var attributesWithoutKeys = attributeFilterMap.entrySet().stream()
-                .filter(entry -> !entry.getKey().equals(hashName) && !entry.getKey().equals(rangeName))
+                .filter(entry -> !entry.getKey().equals(hashName))
+                .filter(entry -> !entry.getKey().equals(rangeName) || keyConditional.isEmpty())
                 .filter(entry -> StringUtils.isNotBlank(entry.getValue()))
                 .toList();
 
-        FilterExpressionBuilder filterExpressionBuilder = new FilterExpressionBuilder();
-
         attributesWithoutKeys
                 .forEach(entry -> filterExpressionBuilder.addAttributeValue(entry.getKey(), entry.getValue()));
 
         QueryEnhancedRequest.Builder querySpec = QueryEnhancedRequest.builder()
-                .queryConditional(QueryConditional.keyEqualTo(keyBuilder.build()))
+                .queryConditional(keyConditional.orElseGet(() -> filterExpressionBuilder.keyConditional(hashName, hashValue, null, null).orElseThrow()))
                 .filterExpression(filterExpressionBuilder.build());
 
         return querySpec.limit(numberOfDocuments).build();
     }
 
-    private static synchronized String hashValue(String value) {
-        return String.valueOf(Math.abs(value.hashCode()));
-    }
-
-    public static String attributeName(String attribute) {
-        return "#attr_" + hashValue(attribute);
-    }
-
-    public static String attributeValue(String attribute) {
-        return ":val_" + hashValue(attribute);
-    }
-
 }
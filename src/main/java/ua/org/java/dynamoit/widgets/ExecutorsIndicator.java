@@ -0,0 +1,65 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.widgets;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.util.Duration;
+import ua.org.java.dynamoit.utils.AppExecutors;
+import ua.org.java.dynamoit.utils.MonitoredExecutor;
+
+import java.util.stream.Collectors;
+
+/**
+ * Shows running and queued tasks of the background pools
+ */
+public class ExecutorsIndicator extends Label {
+
+    private final AppExecutors executors;
+    private final Tooltip tooltip = new Tooltip();
+
+    public ExecutorsIndicator(AppExecutors executors) {
+        this.executors = executors;
+        setPadding(new Insets(0, 6, 0, 0));
+        setTooltip(tooltip);
+
+        Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> refresh()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+        timeline.play();
+        refresh();
+    }
+
+    private void refresh() {
+        setText(executors.all().stream()
+                .filter(executor -> executor.getActive() > 0 || executor.getQueued() > 0)
+                .map(executor -> String.format("%s %d/%d", executor.getName(), executor.getActive(), executor.getQueued()))
+                .collect(Collectors.joining("  ")));
+        tooltip.setText("running/queued tasks\n" + executors.all().stream()
+                .map(ExecutorsIndicator::describe)
+                .collect(Collectors.joining("\n")));
+    }
+
+    private static String describe(MonitoredExecutor executor) {
+        return String.format("%s: %d running, %d queued, %d completed",
+                executor.getName(), executor.getActive(), executor.getQueued(), executor.getCompleted());
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ua.org.java.dynamoit.components.tablegrid.ColumnWindow.*;
+
+public class ColumnWindowTest {
+
+    private static final int ATTRIBUTES = ColumnWindow.VIRTUALIZE_THRESHOLD + 50;
+
+    @Test
+    public void testOnlyNewAttributesAreAdded() {
+        ColumnWindow window = new ColumnWindow();
+
+        assertEquals(List.of("id", "name"), window.addAll(List.of("id", "name")));
+        assertEquals(List.of("age"), window.addAll(List.of("id", "age", "name")));
+        assertEquals(List.of(), window.addAll(List.of("age")));
+        assertEquals(List.of("id", "name", "age"), window.getAttributes());
+    }
+
+    @Test
+    public void testNarrowTableIsNotVirtualized() {
+        ColumnWindow window = new ColumnWindow();
+        window.addAll(List.of("a", "b", "c"));
+
+        assertFalse(window.isVirtualized());
+        assertEquals(List.of(new Column("a"), new Column("b"), new Column("c")), window.layout(10_000, 500, 250, Set.of()));
+    }
+
+    @Test
+    public void testViewportAndMarginAreMaterialized() {
+        ColumnWindow window = wideWindow();
+
+        // the columns 10..19 are in the viewport, one more column on each side is in the margin
+        List<Slot> slots = window.layout(2000, 2000, 200, Set.of());
+
+        assertEquals(new Gap(9 * DEFAULT_WIDTH), slots.get(0));
+        assertEquals(IntStream.range(9, 21).mapToObj(i -> new Column("a" + i)).toList(), slots.subList(1, 13));
+        assertEquals(new Gap((ATTRIBUTES - 21) * DEFAULT_WIDTH), slots.get(13));
+        assertEquals(14, slots.size());
+    }
+
+    @Test
+    public void testPinnedAndSortedColumns() {
+        ColumnWindow window = wideWindow();
+        window.setPinned(List.of("a100", "a50"));
+        window.setWidth("a0", 300);
+
+        List<Slot> slots = window.layout(0, 400, 0, Set.of("a70"));
+
+        assertEquals(List.of(
+                new Column("a50"), new Column("a100"),
+                new Column("a0"), new Column("a1"),
+                new Gap(67 * DEFAULT_WIDTH), new Column("a70"), new Gap((ATTRIBUTES - 71 - 1) * DEFAULT_WIDTH)
+        ), slots);
+    }
+
+    @Test
+    public void testVisibleAttributes() {
+        ColumnWindow window = new ColumnWindow();
+        window.addAll(List.of("a", "b", "c", "d"));
+        window.setPinned(List.of("d"));
+
+        assertEquals(List.of("d", "b", "c"), window.visible(250, 300));
+        assertEquals(List.of("d", "a"), window.visible(0, 200));
+
+        ColumnWindow wide = wideWindow();
+        assertEquals(List.of("a10", "a11"), wide.visible(2000, 400));
+    }
+
+    private static ColumnWindow wideWindow() {
+        ColumnWindow window = new ColumnWindow();
+        window.addAll(IntStream.range(0, ATTRIBUTES).mapToObj(i -> "a" + i).toList());
+        assertTrue(window.isVirtualized());
+        return window;
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void exportPages() throws Exception {
+        Path file = tempDir.resolve("export.json");
+        List<Page<EnhancedDocument>> pages = List.of(page("1", "2"), page("3"));
+        TransferProgress progress = new TransferProgress("Export");
+
+        assertTrue(new JsonExporter(pages, ForkJoinPool.commonPool(), progress, () -> {
+        }).export(file));
+
+        assertEquals("[{\"id\":\"1\"},{\"id\":\"2\"},{\"id\":\"3\"}]", Files.readString(file));
+        assertEquals(3, progress.getItems());
+    }
+
+    @Test
+    public void removeFileWhenFetchFails() {
+        Path file = tempDir.resolve("export.json");
+        Iterable<Page<EnhancedDocument>> pages = () -> new Iterator<>() {
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Page<EnhancedDocument> next() {
+                if (first) {
+                    first = false;
+                    return page("1");
+                }
+                throw new IllegalStateException("throttled");
+            }
+        };
+
+        JsonExporter exporter = new JsonExporter(pages, ForkJoinPool.commonPool(), new TransferProgress("Export"), () -> {
+        });
+
+        IOException exception = assertThrows(IOException.class, () -> exporter.export(file));
+        assertEquals("throttled", exception.getCause().getMessage());
+        assertFalse(Files.exists(file));
+    }
+
+    private static Page<EnhancedDocument> page(String... ids) {
+        return Page.builder(EnhancedDocument.class)
+                .items(List.of(ids).stream().map(id -> EnhancedDocument.fromJson("{\"id\": \"" + id + "\"}")).toList())
+                .build();
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void importInBatches() throws IOException {
+        Path file = writeDocuments(JsonImporter.IMPORT_BATCH_SIZE + 5);
+        List<List<EnhancedDocument>> batches = new ArrayList<>();
+        TransferProgress progress = new TransferProgress("Import");
+
+        JsonImporter importer = new JsonImporter(batches::add, progress, () -> {
+        });
+        importer.importFrom(file, 0);
+
+        assertEquals(2, batches.size());
+        assertEquals(JsonImporter.IMPORT_BATCH_SIZE, batches.get(0).size());
+        assertEquals(5, batches.get(1).size());
+        assertEquals("0", batches.get(0).getFirst().getString("id"));
+        assertEquals(JsonImporter.IMPORT_BATCH_SIZE + 5, importer.getOffset());
+        assertEquals(JsonImporter.IMPORT_BATCH_SIZE + 5, progress.getItems());
+        assertEquals(Files.size(file), progress.getBytes());
+    }
+
+    @Test
+    public void resumeFromOffset() throws IOException {
+        Path file = writeDocuments(10);
+        List<EnhancedDocument> documents = new ArrayList<>();
+
+        JsonImporter importer = new JsonImporter(documents::addAll, new TransferProgress("Import"), () -> {
+        });
+        importer.importFrom(file, 7);
+
+        assertEquals(List.of("7", "8", "9"), documents.stream().map(document -> document.getString("id")).toList());
+        assertEquals(10, importer.getOffset());
+    }
+
+    @Test
+    public void keepOffsetOnFailure() throws IOException {
+        Path file = writeDocuments(JsonImporter.IMPORT_BATCH_SIZE * 3);
+        List<EnhancedDocument> documents = new ArrayList<>();
+
+        JsonImporter importer = new JsonImporter(batch -> {
+            if (!documents.isEmpty()) {
+                throw new IllegalStateException("throttled");
+            }
+            documents.addAll(batch);
+        }, new TransferProgress("Import"), () -> {
+        });
+
+        assertThrows(IllegalStateException.class, () -> importer.importFrom(file, 0));
+        assertEquals(JsonImporter.IMPORT_BATCH_SIZE, importer.getOffset());
+    }
+
+    private Path writeDocuments(int count) throws IOException {
+        Path file = tempDir.resolve("documents.json");
+        Files.writeString(file, IntStream.range(0, count)
+                .mapToObj(i -> String.format("{\"id\": \"%d\", \"value\": %d}", i, i))
+                .collect(Collectors.joining(",\n", "[", "]")));
+        return file;
+    }
+
+}
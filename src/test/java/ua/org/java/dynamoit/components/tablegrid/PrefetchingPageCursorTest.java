@@ -0,0 +1,80 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefetchingPageCursorTest {
+
+    @Test
+    public void prefetchUpToMaxPages() {
+        AtomicLong requested = new AtomicLong();
+        Flowable<Page<String>> pages = Flowable.range(0, 10)
+                .map(i -> Page.create(List.of("item" + i)))
+                .doOnRequest(requested::addAndGet);
+        PrefetchingPageCursor<String> cursor = new PrefetchingPageCursor<>(new PublisherPageCursor<>(pages), 3, 100);
+
+        cursor.prefetch();
+        cursor.prefetch();
+        assertEquals(3, requested.get());
+        assertEquals(3, cursor.bufferedItems());
+
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            cursor.next().join().ifPresent(page -> items.addAll(page.items()));
+        }
+        assertEquals(List.of("item0", "item1", "item2", "item3"), items);
+        assertEquals(4, requested.get());
+    }
+
+    @Test
+    public void stopPrefetchWhenItemsAreBuffered() {
+        Flowable<Page<String>> pages = Flowable.range(0, 10).map(i -> Page.create(List.of("a" + i, "b" + i)));
+        PrefetchingPageCursor<String> cursor = new PrefetchingPageCursor<>(new PublisherPageCursor<>(pages), 10, 3);
+
+        cursor.prefetch();
+
+        assertEquals(2, cursor.requestedPages());
+        assertEquals(4, cursor.bufferedItems());
+    }
+
+    @Test
+    public void cancelDropsPrefetchedPages() {
+        PublishProcessor<Page<String>> processor = PublishProcessor.create();
+        PrefetchingPageCursor<String> cursor = new PrefetchingPageCursor<>(new PublisherPageCursor<>(processor), 3, 100);
+
+        cursor.prefetch();
+        cursor.cancel();
+        cursor.prefetch();
+
+        assertEquals(0, cursor.requestedPages());
+        assertFalse(processor.hasSubscribers());
+        assertFalse(cursor.hasNext());
+        assertEquals(Optional.empty(), cursor.next().join());
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProjectingPageCursorTest {
+
+    private static final int PAGES = 3;
+
+    @Test
+    public void widenedProjectionIsReadFromLastKey() {
+        AtomicReference<Set<String>> projection = new AtomicReference<>(Set.of("id"));
+        List<String> opened = new ArrayList<>();
+        List<String> read = new ArrayList<>();
+        ProjectingPageCursor<String> cursor = new ProjectingPageCursor<>(projection::get,
+                (attributes, startKey) -> {
+                    opened.add(attributes.size() + " from " + (startKey == null ? "start" : startKey.get("page").n()));
+                    return new PublisherPageCursor<>(pages(startKey == null ? 0 : Integer.parseInt(startKey.get("page").n()) + 1));
+                },
+                (items, attributes) -> items.forEach(item -> read.add(item + " " + attributes.size())));
+
+        cursor.next().join();
+        projection.set(Set.of("id", "name"));
+        cursor.next().join();
+        cursor.next().join();
+
+        assertEquals(List.of("1 from start", "2 from 0"), opened);
+        assertEquals(List.of("item0 1", "item1 2", "item2 2"), read);
+        assertEquals(Optional.empty(), cursor.next().join());
+    }
+
+    @Test
+    public void lastPageIsNotReadAgain() {
+        AtomicReference<Set<String>> projection = new AtomicReference<>(Set.of("id"));
+        List<String> read = new ArrayList<>();
+        ProjectingPageCursor<String> cursor = new ProjectingPageCursor<>(projection::get,
+                (attributes, startKey) -> new PublisherPageCursor<>(pages(startKey == null ? 0 : Integer.parseInt(startKey.get("page").n()) + 1)),
+                (items, attributes) -> read.addAll(items));
+
+        List<String> items = cursor.nextItems(10).join();
+        projection.set(Set.of("id", "name"));
+
+        assertEquals(List.of("item0", "item1", "item2"), items);
+        assertEquals(Optional.empty(), cursor.next().join());
+        assertEquals(items, read);
+    }
+
+    /**
+     * @return pages of one item from the page, every page but the last one has the key
+     */
+    private static Flowable<Page<String>> pages(int from) {
+        return Flowable.range(from, PAGES - from).map(page -> page < PAGES - 1
+                ? Page.create(List.of("item" + page), Map.of("page", AttributeValue.fromN(Integer.toString(page))))
+                : Page.create(List.of("item" + page)));
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PublisherPageCursorTest {
+
+    @Test
+    public void requestPageOnDemand() {
+        List<Long> requests = new ArrayList<>();
+        PublishProcessor<Page<String>> processor = PublishProcessor.create();
+        PublisherPageCursor<String> cursor = new PublisherPageCursor<>(processor.doOnRequest(requests::add));
+
+        assertTrue(requests.isEmpty());
+
+        CompletableFuture<Optional<Page<String>>> first = cursor.next();
+        assertEquals(List.of(1L), requests);
+        assertFalse(first.isDone());
+
+        processor.onNext(Page.create(List.of("a")));
+        assertEquals(List.of("a"), first.join().orElseThrow().items());
+
+        CompletableFuture<Optional<Page<String>>> second = cursor.next();
+        processor.onComplete();
+        assertEquals(Optional.empty(), second.join());
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void readItemsUntilMinimum() {
+        PublishProcessor<Page<String>> processor = PublishProcessor.create();
+        PublisherPageCursor<String> cursor = new PublisherPageCursor<>(processor.onBackpressureBuffer());
+
+        CompletableFuture<List<String>> items = cursor.nextItems(3);
+        processor.onNext(Page.create(List.of("a", "b")));
+        assertFalse(items.isDone());
+        processor.onNext(Page.create(List.of("c", "d")));
+
+        assertEquals(List.of("a", "b", "c", "d"), items.join());
+        assertTrue(cursor.hasNext());
+    }
+
+    @Test
+    public void cancelCompletesWaitingPages() {
+        PublishProcessor<Page<String>> processor = PublishProcessor.create();
+        PublisherPageCursor<String> cursor = new PublisherPageCursor<>(processor);
+
+        CompletableFuture<Optional<Page<String>>> page = cursor.next();
+        cursor.cancel();
+
+        assertEquals(Optional.empty(), page.join());
+        assertFalse(processor.hasSubscribers());
+        assertFalse(cursor.hasNext());
+    }
+
+}
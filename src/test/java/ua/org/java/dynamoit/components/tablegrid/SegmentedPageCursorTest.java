@@ -0,0 +1,82 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.*;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedPageCursorTest {
+
+    @Test
+    public void mergeAllSegments() {
+        List<PageCursor<String>> segments = List.of(
+                new PublisherPageCursor<>(Flowable.just(Page.create(List.of("a1", "a2")), Page.create(List.of("a3")))),
+                new PublisherPageCursor<>(Flowable.empty()),
+                new PublisherPageCursor<>(Flowable.just(Page.create(List.of("c1"))))
+        );
+        Map<Integer, SegmentedPageCursor.SegmentProgress> progress = new HashMap<>();
+
+        SegmentedPageCursor<String> cursor = new SegmentedPageCursor<>(segments, p -> progress.put(p.segment(), p));
+
+        Set<String> items = new HashSet<>();
+        cursor.blockingIterator().forEachRemaining(page -> items.addAll(page.items()));
+
+        assertEquals(Set.of("a1", "a2", "a3", "c1"), items);
+        assertEquals(new SegmentedPageCursor.SegmentProgress(0, 3, true), progress.get(0));
+        assertEquals(new SegmentedPageCursor.SegmentProgress(1, 0, true), progress.get(1));
+        assertEquals(new SegmentedPageCursor.SegmentProgress(2, 1, true), progress.get(2));
+        assertFalse(cursor.hasNext());
+        assertEquals(Optional.empty(), cursor.next().join());
+    }
+
+    @Test
+    public void readItemsFromSegments() {
+        List<PageCursor<String>> segments = List.of(
+                new PublisherPageCursor<>(Flowable.just(Page.create(List.of("a1", "a2")), Page.create(List.of("a3")))),
+                new PublisherPageCursor<>(Flowable.just(Page.create(List.of("b1"))))
+        );
+
+        SegmentedPageCursor<String> cursor = new SegmentedPageCursor<>(segments, p -> {
+        });
+
+        List<String> first = cursor.nextItems(3).join();
+        List<String> rest = cursor.nextItems(3).join();
+
+        assertTrue(first.size() >= 3);
+        assertEquals(4, first.size() + rest.size());
+    }
+
+    @Test
+    public void propagateSegmentFailure() {
+        PageCursor<String> failing = new PublisherPageCursor<>(Flowable.error(new IllegalStateException("segment failed")));
+
+        SegmentedPageCursor<String> cursor = new SegmentedPageCursor<>(List.of(failing), p -> {
+        });
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> cursor.next().join());
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertFalse(cursor.hasNext());
+    }
+
+}
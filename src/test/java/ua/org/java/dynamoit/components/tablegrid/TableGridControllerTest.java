@@ -17,49 +17,176 @@
 
 package ua.org.java.dynamoit.components.tablegrid;
 
+import javafx.beans.property.SimpleStringProperty;
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
 import ua.org.java.dynamoit.DynamoDBTest;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.main.MainModel;
+import ua.org.java.dynamoit.components.tablegrid.store.StoredDocument;
 import ua.org.java.dynamoit.model.TableDef;
 import ua.org.java.dynamoit.services.DynamoDbService;
+import ua.org.java.dynamoit.utils.AppExecutors;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TableGridControllerTest extends DynamoDBTest {
 
     @Test
     public void onRefreshData() {
+        TableGridModel model = createModel();
+        TableGridController controller = createController(model);
+
+        controller.onRefreshData().join();
+
+        assertEquals(2, model.getRowsSize());
+    }
+
+    @Test
+    public void supersededRefreshIsNotShown() {
+        TableGridModel model = createModel();
+        TableGridController controller = createController(model);
+
+        CompletableFuture<Void> first = controller.onRefreshData();
+        controller.onRefreshData().join();
+        first.exceptionally(throwable -> null).join();
+
+        assertEquals(2, model.getRowsSize());
+    }
+
+    @Test
+    public void closedTabDoesNotLoad() {
+        TableGridModel model = createModel();
+        TableGridController controller = createController(model);
+        controller.onRefreshData().join();
+
+        controller.onClose();
+        CompletionException exception = assertThrows(CompletionException.class, () -> controller.onRefreshData().join());
+
+        assertInstanceOf(CancellationException.class, exception.getCause());
+        assertEquals(2, model.getRowsSize());
+    }
+
+    @Test
+    public void attributesOfCancelledLoadBecomeColumns() {
+        TableGridModel model = createModel();
+        // the refresh supersedes the first load which is in flight
+        TableGridController controller = createController(model);
+        controller.onRefreshData().join();
+        assertEquals(Attributes.Type.STRING, model.getTableDef().getAttributeTypesMap().get("name"));
+
+        // the rows of a cancelled load have been folded into the schema, but their attributes have not been shown
+        model.getTableDef().getAttributeTypesMap().remove("name");
+        controller.onRefreshData().join();
+
+        assertEquals(Attributes.Type.STRING, model.getTableDef().getAttributeTypesMap().get("name"));
+    }
+
+    @Test
+    public void projectedRowsAreReadFullyWhenOpened() {
+        TableGridModel model = createModel();
+        TableGridController controller = createController(model);
+        controller.onRefreshData().join();
+        assertFalse(((StoredDocument) model.getRows().get(0)).isProjected());
+
+        model.setProjection(true);
+        controller.onRefreshData().join();
+
+        StoredDocument row = (StoredDocument) model.getRows().get(0);
+        assertTrue(row.isProjected());
+        assertEquals(Set.of("id"), row.toMap().keySet());
+        assertEquals(Set.of("id", "name"), controller.onLoadFullItem(row).join().toMap().keySet());
+
+        model.setVisibleAttributes(List.of("name"));
+        controller.onRefreshData().join();
+
+        assertEquals(Set.of("id", "name"), model.getRows().get(0).toMap().keySet());
+    }
+
+    @Test
+    public void columnsScrolledIntoViewAreRead() {
+        TableGridModel model = createModel();
+        TableGridController controller = createController(model);
+        model.setProjection(true);
+        controller.onRefreshData().join();
+        assertEquals(Set.of("id"), model.getRows().get(0).toMap().keySet());
+        EnhancedDocument row = model.getRows().get(0);
+        PrefetchingPageCursor<EnhancedDocument> pageCursor = model.getPageCursor();
+
+        controller.onVisibleAttributesChanged(List.of("name")).join();
+
+        // the loaded rows read the column by their keys, the query goes on
+        assertEquals(Set.of("id", "name"), model.getRowStore().getProjection());
+        assertSame(row, model.getRows().get(0));
+        assertSame(pageCursor, model.getPageCursor());
+        assertEquals(2, model.getRowsSize());
+        assertEquals(Set.of("id", "name"), row.toMap().keySet());
+        assertEquals(Attributes.Type.STRING, model.getTableDef().getAttributeTypesMap().get("name"));
+
+        // the columns which have been read stay read when they are scrolled out of view
+        controller.onVisibleAttributesChanged(List.of()).join();
+        controller.onVisibleAttributesChanged(List.of("name")).join();
+        assertSame(row, model.getRows().get(0));
+    }
+
+    @Test
+    public void notProjectedAttributeDoesNotNarrowLoadedRows() {
+        TableGridModel model = createModel();
+        TableGridController controller = createController(model);
+        model.setProjection(true);
+        model.setLocalFilter(true);
+        controller.onRefreshData().join();
+        assertEquals(2, model.getFilteredRows().size());
+
+        model.getAttributeFilterMap().computeIfAbsent("name", name -> new SimpleStringProperty()).set("John");
+
+        assertFalse(controller.isLocalFilterApplicable());
+        assertTrue(controller.validateFilter("name", "John").isPresent());
+        controller.onApplyLocalFilter().join();
+        assertEquals(2, model.getFilteredRows().size());
+
+        // the table is read with the filtered attribute
+        controller.onRefreshData().join();
+        assertTrue(controller.isLocalFilterApplicable());
+        assertEquals(1, model.getFilteredRows().size());
+        model.getAttributeFilterMap().get("name").set("William");
+        controller.onApplyLocalFilter().join();
+        assertEquals(0, model.getFilteredRows().size());
+    }
+
+    private TableGridModel createModel() {
         MainModel mainModel = new MainModel();
         mainModel.addProfile(localProfileDetails);
 
-        DynamoDbService dynamoDbService = new DynamoDbService(dynamoDbClientRegistry);
+        DynamoDbService dynamoDbService = new DynamoDbService(dynamoDbClientRegistry, ForkJoinPool.commonPool());
 
         dynamoDbService.getListOfTables(localProfileDetails)
                 .thenApply(tables -> tables.stream().map(TableDef::new).collect(Collectors.toList()))
                 .thenAcceptAsync(tables -> mainModel.getAvailableProfiles().get("local").getAvailableTables().setAll(tables))
                 .join();
 
-        TableGridModel model = new TableGridModel(mainModel.getAvailableProfiles().get("local"));
-
+        return new TableGridModel(mainModel.getAvailableProfiles().get("local"));
+    }
 
+    private TableGridController createController(TableGridModel model) {
         TableGridContext context = new TableGridContext(localProfileDetails, "Users");
 
         EventBus eventBus = new EventBus(ForkJoinPool.commonPool());
 
-        TableGridController controller = new TableGridModule() {
+        return new TableGridModule() {
             @Override
             protected Executor getUIExecutor() {
                 return ForkJoinPool.commonPool();
             }
-        }.controller(context, model, dynamoDbClientRegistry, eventBus, null);
-
-        controller.onRefreshData().join();
-
-        assertEquals(2, model.getRowsSize());
+        }.controller(context, model, dynamoDbClientRegistry, eventBus, null, new AppExecutors());
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.highlight;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.store.RowStore;
+import ua.org.java.dynamoit.components.tablegrid.store.SchemaTracker;
+import ua.org.java.dynamoit.components.tablegrid.store.StoredDocument;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cost of the cell styles of one screen of rows while scrolling with many highlighting rules,
+ * run with -Pbenchmark
+ */
+@Tag("benchmark")
+public class HighlighterBenchmarkTest {
+
+    private static final int[] RULES = {10, 100, 500, 2_000};
+    private static final int COLUMNS = 10;
+    private static final int VISIBLE_ROWS = 40;
+    private static final int VALUES = 10_000;
+    private static final int FRAMES = 20_000;
+    private static final int PATTERN_ROWS = 100_000;
+    private static final int PATTERN_RULES = 120;
+    private static final int PAGE_SIZE = 1_000;
+
+    @Test
+    public void scrollHighlightedRows() {
+        for (int rules : RULES) {
+            Highlighter highlighter = new Highlighter();
+            for (int column = 0; column < COLUMNS; column++) {
+                for (int rule = 0; rule < rules; rule++) {
+                    highlighter.addEqHighlighting("attribute" + column, "value " + rule * 7);
+                }
+            }
+
+            // the index finds the same criteria as the scan of the criteria
+            for (int value = 0; value < VALUES; value += 7) {
+                assertSame(scan(highlighter, "attribute1", "value " + value), highlighter.find("attribute1", "value " + value));
+            }
+            assertNotNull(highlighter.find("attribute1", "value 7"));
+            assertNull(highlighter.find("attribute1", "value 8"));
+
+            scroll(highlighter, FRAMES, true);
+            scroll(highlighter, FRAMES / 10, false);
+            long frameNanos = scroll(highlighter, FRAMES, true);
+            long linearFrameNanos = scroll(highlighter, FRAMES / 10, false);
+
+            List<CountingTarget> cells = new ArrayList<>();
+            for (int i = 0; i < VISIBLE_ROWS * COLUMNS; i++) {
+                CountingTarget cell = new CountingTarget("value " + i);
+                cells.add(cell);
+                highlighter.register("attribute" + i % COLUMNS, cell);
+            }
+            long start = System.nanoTime();
+            highlighter.addEqHighlighting("attribute0", "value 0");
+            long changeNanos = System.nanoTime() - start;
+            long restyled = cells.stream().mapToLong(cell -> cell.restyled).sum();
+            // only the cell of the added value is restyled
+            assertEquals(1, restyled);
+            assertEquals(1, cells.get(0).restyled);
+
+            System.out.printf("%d rules per column: %d us per frame, %d us per frame with criteria scan, rule added in %d us restyling %d of %d cells%n",
+                    rules, TimeUnit.NANOSECONDS.toMicros(frameNanos), TimeUnit.NANOSECONDS.toMicros(linearFrameNanos),
+                    TimeUnit.NANOSECONDS.toMicros(changeNanos), restyled, cells.size());
+        }
+    }
+
+    @Test
+    public void scrollRowsWithPatternRules() {
+        ObservableList<EnhancedDocument> rows = FXCollections.observableArrayList();
+        Highlighter highlighter = new Highlighter(rows, Runnable::run, Runnable::run);
+        for (int rule = 0; rule < PATTERN_RULES; rule++) {
+            highlighter.addHighlighting("attribute0", Highlighter.ValueComparator.REGEX, "^value " + rule + "[0-9]*7$");
+            highlighter.addHighlighting("attribute1", Highlighter.ValueComparator.RANGE, (rule * 800) + ".." + (rule * 800 + 10));
+        }
+
+        RowStore store = new RowStore();
+        SchemaTracker schema = new SchemaTracker();
+        long start = System.nanoTime();
+        for (int first = 0; first < PATTERN_ROWS; first += PAGE_SIZE) {
+            List<EnhancedDocument> page = new ArrayList<>(PAGE_SIZE);
+            for (int i = first; i < first + PAGE_SIZE; i++) {
+                Map<String, AttributeValue> item = new HashMap<>();
+                for (int column = 0; column < COLUMNS; column++) {
+                    item.put("attribute" + column, column % 2 == 0 ? AttributeValue.fromS("value " + i) : AttributeValue.fromN(String.valueOf(i)));
+                }
+                page.add(EnhancedDocument.fromAttributeValueMap(item));
+            }
+            rows.addAll(store.addAll(RowStore.prepare(page, schema, Runnable::run).join()));
+        }
+        long loadNanos = System.nanoTime() - start;
+
+        assertNotNull(highlighter.find("attribute0", 17, "value 17"));
+        assertNull(highlighter.find("attribute0", 18, "value 18"));
+        assertNotNull(highlighter.find("attribute1", 5, "5"));
+        assertNull(highlighter.find("attribute1", 15, "15"));
+        // the styles evaluated when the rows were loaded are the same as matching the values
+        for (int i = 0; i < rows.size(); i += 97) {
+            StoredDocument row = (StoredDocument) rows.get(i);
+            for (int column = 0; column < 2; column++) {
+                String attribute = "attribute" + column;
+                assertSame(highlighter.find(attribute, -1, row.display(attribute)), highlighter.find(attribute, row.getIndex(), row.display(attribute)));
+            }
+        }
+
+        scrollStored(highlighter, rows, FRAMES, true);
+        scrollStored(highlighter, rows, FRAMES / 100, false);
+        long frameNanos = scrollStored(highlighter, rows, FRAMES, true);
+        long matchFrameNanos = scrollStored(highlighter, rows, FRAMES / 100, false);
+
+        System.out.printf("%d rows with %d regex and %d range rules loaded and evaluated in %d ms: %d us per frame, %d us per frame with matching%n",
+                PATTERN_ROWS, PATTERN_RULES, PATTERN_RULES, TimeUnit.NANOSECONDS.toMillis(loadNanos),
+                TimeUnit.NANOSECONDS.toMicros(frameNanos), TimeUnit.NANOSECONDS.toMicros(matchFrameNanos));
+    }
+
+    /**
+     * @return average nanoseconds per frame
+     */
+    private static long scrollStored(Highlighter highlighter, List<EnhancedDocument> rows, int frames, boolean evaluated) {
+        int highlighted = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            int first = (int) ((long) frame * 7919 % (rows.size() - VISIBLE_ROWS));
+            for (int i = first; i < first + VISIBLE_ROWS; i++) {
+                StoredDocument row = (StoredDocument) rows.get(i);
+                for (int column = 0; column < COLUMNS; column++) {
+                    String attribute = "attribute" + column;
+                    if (highlighter.find(attribute, evaluated ? row.getIndex() : -1, row.display(attribute)) != null) {
+                        highlighted++;
+                    }
+                }
+            }
+        }
+        if (highlighted < 0) {
+            throw new IllegalStateException();
+        }
+        return (System.nanoTime() - start) / frames;
+    }
+
+    /**
+     * @return average nanoseconds per frame
+     */
+    private static long scroll(Highlighter highlighter, int frames, boolean indexed) {
+        int highlighted = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            int first = frame * 7919 % (VALUES - VISIBLE_ROWS);
+            for (int row = first; row < first + VISIBLE_ROWS; row++) {
+                for (int column = 0; column < COLUMNS; column++) {
+                    String attribute = "attribute" + column;
+                    String value = "value " + (row + column);
+                    Highlighter.Criteria criteria = indexed
+                            ? highlighter.find(attribute, value)
+                            : scan(highlighter, attribute, value);
+                    if (criteria != null) {
+                        highlighted++;
+                    }
+                }
+            }
+        }
+        if (highlighted < 0) {
+            throw new IllegalStateException();
+        }
+        return (System.nanoTime() - start) / frames;
+    }
+
+    private static Highlighter.Criteria scan(Highlighter highlighter, String attribute, String value) {
+        return highlighter.getCriteria(attribute).stream().filter(c -> c.match(value)).findFirst().orElse(null);
+    }
+
+    private static class CountingTarget implements Highlighter.Target {
+
+        private final String value;
+        private int restyled;
+
+        private CountingTarget(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getHighlightedValue() {
+            return value;
+        }
+
+        @Override
+        public void highlight(Highlighter.Criteria criteria) {
+            restyled++;
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.highlight;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import ua.org.java.dynamoit.components.tablegrid.store.RowStore;
+import ua.org.java.dynamoit.components.tablegrid.store.SchemaTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HighlighterTest {
+
+    @Test
+    public void findByTrimmedValue() {
+        Highlighter highlighter = new Highlighter();
+        highlighter.addEqHighlighting("name", " john ");
+
+        assertNotNull(highlighter.find("name", "john"));
+        assertNotNull(highlighter.find("name", "john  "));
+        assertNull(highlighter.find("name", "jane"));
+        assertNull(highlighter.find("name", null));
+        assertNull(highlighter.find("other", "john"));
+    }
+
+    @Test
+    public void lastAddedCriteriaWins() {
+        Highlighter highlighter = new Highlighter();
+        highlighter.addEqHighlighting("name", "john");
+        Highlighter.Criteria first = highlighter.find("name", "john");
+        highlighter.addEqHighlighting("name", "john");
+        Highlighter.Criteria second = highlighter.find("name", "john");
+
+        assertNotSame(first, second);
+        assertSame(highlighter.getCriteria("name").get(0), second);
+
+        highlighter.getCriteria("name").remove(second);
+        assertSame(first, highlighter.find("name", "john"));
+
+        highlighter.clear();
+        assertNull(highlighter.find("name", "john"));
+    }
+
+    @Test
+    public void restyleOnlyAffectedTargets() {
+        Highlighter highlighter = new Highlighter();
+        highlighter.addEqHighlighting("name", "jane");
+        TestTarget john = new TestTarget("john");
+        TestTarget jane = new TestTarget("jane");
+        TestTarget empty = new TestTarget(null);
+        highlighter.register("name", john);
+        highlighter.register("name", jane);
+        highlighter.register("name", empty);
+
+        highlighter.addEqHighlighting("name", "john");
+        assertEquals(1, john.styles.size());
+        assertNotNull(john.styles.get(0));
+        assertTrue(jane.styles.isEmpty());
+
+        highlighter.addEqHighlighting("other", "john");
+        assertEquals(1, john.styles.size());
+
+        highlighter.unregister("name", jane);
+        highlighter.clear();
+        assertEquals(2, john.styles.size());
+        assertNull(john.styles.get(1));
+        assertTrue(jane.styles.isEmpty());
+        assertTrue(empty.styles.isEmpty());
+    }
+
+    @Test
+    public void compiledComparators() {
+        assertTrue(Highlighter.ValueComparator.PREFIX.compile("err").test("error: timeout"));
+        assertFalse(Highlighter.ValueComparator.PREFIX.compile("err").test("no error"));
+        assertTrue(Highlighter.ValueComparator.CONTAINS.compile("time").test("error: timeout"));
+        assertFalse(Highlighter.ValueComparator.CONTAINS.compile("time").test(null));
+        assertTrue(Highlighter.ValueComparator.REGEX.compile("^[0-9a-f]{8}$").test("deadbeef"));
+        assertFalse(Highlighter.ValueComparator.REGEX.compile("^[0-9a-f]{8}$").test("deadbeef1"));
+        assertTrue(Highlighter.ValueComparator.RANGE.compile("10..20").test("10"));
+        assertTrue(Highlighter.ValueComparator.RANGE.compile("10..20").test("2e1"));
+        assertFalse(Highlighter.ValueComparator.RANGE.compile("10..20").test("20.5"));
+        assertFalse(Highlighter.ValueComparator.RANGE.compile("10..20").test("fifteen"));
+        assertTrue(Highlighter.ValueComparator.RANGE.compile("..0").test("-3"));
+        assertTrue(Highlighter.ValueComparator.RANGE.compile("100..").test("1000"));
+
+        assertThrows(IllegalArgumentException.class, () -> Highlighter.ValueComparator.REGEX.compile("[a-"));
+        assertThrows(IllegalArgumentException.class, () -> Highlighter.ValueComparator.RANGE.compile("10"));
+        assertThrows(IllegalArgumentException.class, () -> Highlighter.ValueComparator.RANGE.compile("a..b"));
+    }
+
+    @Test
+    public void firstCriteriaWinsAcrossComparators() {
+        Highlighter highlighter = new Highlighter();
+        highlighter.addEqHighlighting("name", "error: timeout");
+        highlighter.addHighlighting("name", Highlighter.ValueComparator.PREFIX, "error");
+
+        Highlighter.Criteria prefix = highlighter.getCriteria("name").get(0);
+        assertSame(prefix, highlighter.find("name", "error: timeout"));
+        assertSame(prefix, highlighter.find("name", "error: disk"));
+
+        highlighter.addEqHighlighting("name", "error: timeout");
+        assertSame(highlighter.getCriteria("name").get(0), highlighter.find("name", "error: timeout"));
+        assertSame(prefix, highlighter.find("name", "error: disk"));
+        assertNull(highlighter.find("name", "ok"));
+    }
+
+    @Test
+    public void evaluateLoadedRows() {
+        ObservableList<EnhancedDocument> rows = FXCollections.observableArrayList();
+        List<Runnable> tasks = new ArrayList<>();
+        Highlighter highlighter = new Highlighter(rows, tasks::add, Runnable::run);
+        RowStore store = new RowStore();
+        SchemaTracker schema = new SchemaTracker();
+        rows.addAll(store.addAll(RowStore.prepare(List.of(
+                EnhancedDocument.fromJson("{\"count\": 5}"),
+                EnhancedDocument.fromJson("{\"count\": 50}")
+        ), schema, Runnable::run).join()));
+
+        highlighter.addHighlighting("count", Highlighter.ValueComparator.RANGE, "10..100");
+        Highlighter.Criteria range = highlighter.getCriteria("count").get(0);
+        // not evaluated yet, the value is matched
+        assertNull(highlighter.find("count", 0, "5"));
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+        // the evaluated style of the row is used whatever value is passed
+        assertNull(highlighter.find("count", 0, "50"));
+        assertSame(range, highlighter.find("count", 1, "5"));
+
+        rows.addAll(store.addAll(RowStore.prepare(List.of(EnhancedDocument.fromJson("{\"count\": 70}")), schema, Runnable::run).join()));
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertSame(range, highlighter.find("count", 2, ""));
+
+        rows.clear();
+        assertNull(highlighter.find("count", 1, "5"));
+    }
+
+    private static class TestTarget implements Highlighter.Target {
+
+        private final String value;
+        private final List<Highlighter.Criteria> styles = new ArrayList<>();
+
+        private TestTarget(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getHighlightedValue() {
+            return value;
+        }
+
+        @Override
+        public void highlight(Highlighter.Criteria criteria) {
+            styles.add(criteria);
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import ua.org.java.dynamoit.components.tablegrid.parser.FilterNode.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterParserTest {
+
+    @ParameterizedTest
+    @MethodSource("conditionArguments")
+    public void testCondition(String filter, FilterNode expected) {
+        assertEquals(expected, FilterParser.parse(filter));
+    }
+
+    static Stream<Arguments> conditionArguments() {
+        return Stream.of(
+                Arguments.arguments("hello world", new Condition(Operator.EQUALS, "hello world")),
+                Arguments.arguments("=hello", new Condition(Operator.EQUALS, "hello")),
+                Arguments.arguments("!=hello", new Condition(Operator.NOT_EQUALS, "hello")),
+                Arguments.arguments("^hello", new Condition(Operator.BEGINS_WITH, "hello")),
+                Arguments.arguments("~hello", new Condition(Operator.CONTAINS, "hello")),
+                Arguments.arguments("!~hello", new Condition(Operator.NOT_CONTAINS, "hello")),
+                Arguments.arguments("$", new Condition(Operator.EXISTS)),
+                Arguments.arguments("!$", new Condition(Operator.NOT_EXISTS)),
+                Arguments.arguments("$5", new Condition(Operator.EQUALS, "$5")),
+                Arguments.arguments("> 10", new Condition(Operator.GREATER, "10")),
+                Arguments.arguments(">=10", new Condition(Operator.GREATER_OR_EQUALS, "10")),
+                Arguments.arguments("<10", new Condition(Operator.LESS, "10")),
+                Arguments.arguments("<=10", new Condition(Operator.LESS_OR_EQUALS, "10")),
+                Arguments.arguments("BETWEEN 2024-01 AND 2024-06", new Condition(Operator.BETWEEN, "2024-01", "2024-06")),
+                Arguments.arguments("in (a, b c, 'd, e')", new Condition(Operator.IN, "a", "b c", "d, e")),
+                Arguments.arguments("size > 3", new Condition(Operator.GREATER, true, List.of("3"))),
+                Arguments.arguments("size() between 1 and 5", new Condition(Operator.BETWEEN, true, List.of("1", "5"))),
+                Arguments.arguments("type(n)", new Condition(Operator.TYPE, "n")),
+                Arguments.arguments("'a or b'", new Condition(Operator.EQUALS, "a or b")),
+                Arguments.arguments("size matters", new Condition(Operator.EQUALS, "size matters")),
+                Arguments.arguments("in stock", new Condition(Operator.EQUALS, "in stock")),
+                Arguments.arguments("not available", new Condition(Operator.EQUALS, "not available")),
+                Arguments.arguments("Orange", new Condition(Operator.EQUALS, "Orange"))
+        );
+    }
+
+    @Test
+    public void testPrecedence() {
+        assertEquals(new Or(List.of(
+                new Condition(Operator.EQUALS, "a"),
+                new And(List.of(new Condition(Operator.BEGINS_WITH, "b"), new Condition(Operator.CONTAINS, "c")))
+        )), FilterParser.parse("a or ^b and ~c"));
+    }
+
+    @Test
+    public void testGroups() {
+        assertEquals(new And(List.of(
+                new Not(new Or(List.of(new Condition(Operator.EQUALS, "a"), new Condition(Operator.EQUALS, "b")))),
+                new Condition(Operator.EXISTS)
+        )), FilterParser.parse("not (a OR b) and $"));
+    }
+
+    @Test
+    public void testIncompleteConditionsAreSkipped() {
+        assertNull(FilterParser.parse(null));
+        assertNull(FilterParser.parse("  "));
+        assertNull(FilterParser.parse("^ or ~"));
+        assertEquals(new Condition(Operator.EQUALS, "a"), FilterParser.parse("a or ^"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"(a or b", "between 1", "in (a, b", "size > x", "'abc", "type(S", "a)"})
+    public void testSyntaxError(String filter) {
+        assertThrows(FilterSyntaxException.class, () -> FilterParser.parse(filter));
+    }
+
+    @Test
+    public void testWordsOfPlainValuesAreOperators() {
+        assertEquals(new And(List.of(new Condition(Operator.EQUALS, "Rock"), new Condition(Operator.EQUALS, "Roll"))),
+                FilterParser.parse("Rock and Roll"));
+        assertEquals(new Or(List.of(new Condition(Operator.EQUALS, "Tom"), new Condition(Operator.EQUALS, "Jerry"))),
+                FilterParser.parse("Tom or Jerry"));
+        assertEquals(new Condition(Operator.EQUALS, "Tom or Jerry"), FilterParser.parse("'Tom or Jerry'"));
+        assertEquals(new Condition(Operator.GREATER, "5"), FilterParser.parse(">5"));
+        assertEquals(new Condition(Operator.EQUALS, ">5"), FilterParser.parse("'>5'"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"smile :)", "x(1)", "between", " (a or b "})
+    public void testInvalidFilterIsPlainValue(String filter) {
+        assertEquals(new Condition(Operator.EQUALS, filter.trim()), FilterParser.parseOrLiteral(filter));
+    }
+
+    @Test
+    public void testValidFilterIsNotPlainValue() {
+        assertNull(FilterParser.parseOrLiteral(" "));
+        assertEquals(FilterParser.parse("^a or ~b"), FilterParser.parseOrLiteral("^a or ~b"));
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser.expression;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DocumentFilterTest {
+
+    private static final EnhancedDocument DOCUMENT = EnhancedDocument.fromJson("""
+            {"name": "dynamo", "count": 12, "active": true, "tags": ["a", "b"], "list": ["x", 3], "map": {"k": "v"}}
+            """);
+
+    private static final Map<String, Attributes.Type> TYPES = Map.of(
+            "name", Attributes.Type.STRING,
+            "count", Attributes.Type.NUMBER,
+            "active", Attributes.Type.BOOLEAN
+    );
+
+    @ParameterizedTest
+    @MethodSource("filterArguments")
+    public void testFilter(String attribute, String filter, boolean expected) {
+        assertEquals(expected, DocumentFilter.of(Map.of(attribute, filter), TYPES).test(DOCUMENT), attribute + ": " + filter);
+    }
+
+    static Stream<Arguments> filterArguments() {
+        return Stream.of(
+                Arguments.arguments("name", "dynamo", true),
+                Arguments.arguments("name", "Dynamo", false),
+                Arguments.arguments("name", "!=dynamo", false),
+                Arguments.arguments("name", "^dyn", true),
+                Arguments.arguments("name", "~nam", true),
+                Arguments.arguments("name", "!~nam", false),
+                Arguments.arguments("name", "> dyna", true),
+                Arguments.arguments("name", "between a and e", true),
+                Arguments.arguments("name", "in (a, dynamo)", true),
+                Arguments.arguments("name", "size = 6", true),
+                Arguments.arguments("name", "type(S)", true),
+                Arguments.arguments("count", "12.0", true),
+                Arguments.arguments("count", "> 9", true),
+                Arguments.arguments("count", "<= 11", false),
+                Arguments.arguments("count", "between 10 and 12", true),
+                Arguments.arguments("count", "type(n)", true),
+                Arguments.arguments("active", "true", true),
+                Arguments.arguments("active", "!=true", false),
+                Arguments.arguments("tags", "~b", true),
+                Arguments.arguments("tags", "size = 2", true),
+                Arguments.arguments("list", "~x", true),
+                Arguments.arguments("map", "size > 1", false),
+                Arguments.arguments("map", "$", true),
+                Arguments.arguments("missing", "$", false),
+                Arguments.arguments("missing", "!$", true),
+                Arguments.arguments("missing", "!=a", true),
+                Arguments.arguments("missing", "!~a", true),
+                Arguments.arguments("missing", "a", false),
+                Arguments.arguments("missing", "not (a)", true),
+                Arguments.arguments("name", "^x or ^d and ~mo", true),
+                Arguments.arguments("name", "^x or ^d and ~me", false)
+        );
+    }
+
+    @Test
+    public void testAllFiltersMatch() {
+        assertTrue(DocumentFilter.of(Map.of("name", "^d", "count", ">1"), TYPES).test(DOCUMENT));
+        assertEquals(false, DocumentFilter.of(Map.of("name", "^d", "count", ">100"), TYPES).test(DOCUMENT));
+        assertTrue(DocumentFilter.of(Map.of("name", " "), TYPES).isEmpty());
+    }
+
+    @Test
+    public void testParallelEvaluation() {
+        List<EnhancedDocument> rows = IntStream.range(0, 1000)
+                .mapToObj(DocumentFilterTest::document)
+                .toList();
+        DocumentFilter filter = DocumentFilter.of(Map.of("n", "between 100 and 199"), Map.of("n", Attributes.Type.NUMBER));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Predicate<EnhancedDocument> predicate;
+        try {
+            predicate = filter.evaluate(rows, executor).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(100, rows.stream().filter(predicate).count());
+        assertEquals(rows.stream().filter(filter).toList(), rows.stream().filter(predicate).toList());
+        // rows which were not evaluated are tested directly
+        assertTrue(predicate.test(document(150)));
+    }
+
+    private static EnhancedDocument document(int i) {
+        return EnhancedDocument.fromAttributeValueMap(Map.of("id", AttributeValue.fromS("id" + i), "n", AttributeValue.fromN(String.valueOf(i))));
+    }
+
+}
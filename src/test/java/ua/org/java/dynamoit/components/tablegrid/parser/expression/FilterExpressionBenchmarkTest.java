@@ -0,0 +1,90 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser.expression;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Time of building the filter expression of a wide table, run with -Pbenchmark
+ */
+@Tag("benchmark")
+public class FilterExpressionBenchmarkTest {
+
+    private static final int COLUMNS = 250;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final String[] FILTERS = {
+            "hello world", "^hello", "~world", "!=hello", ">= 10", "between 1 and 100", "in (a, b, c)", "size > 3", "$",
+            "^hello or (~world and size < 20)"
+    };
+
+    @Test
+    public void buildExpression() {
+        Map<String, String> filters = new LinkedHashMap<>();
+        Map<String, Attributes.Type> types = new LinkedHashMap<>();
+        for (int i = 0; i < COLUMNS; i++) {
+            filters.put("attribute" + i, FILTERS[i % FILTERS.length]);
+            types.put("attribute" + i, i % 3 == 0 ? Attributes.Type.NUMBER : Attributes.Type.STRING);
+        }
+
+        Expression expected = build(filters, types);
+        run(filters, types, WARMUP_ITERATIONS, true);
+        run(filters, types, WARMUP_ITERATIONS, false);
+
+        long uncachedNanos = run(filters, types, ITERATIONS, true);
+        long cachedNanos = run(filters, types, ITERATIONS, false);
+
+        assertEquals(expected, build(filters, types));
+        System.out.printf("%d columns: uncached build %d us, cached build %d us%n",
+                COLUMNS, TimeUnit.NANOSECONDS.toMicros(uncachedNanos), TimeUnit.NANOSECONDS.toMicros(cachedNanos));
+    }
+
+    /**
+     * @return average nanoseconds per build
+     */
+    private static long run(Map<String, String> filters, Map<String, Attributes.Type> types, int iterations, boolean clearCache) {
+        int length = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (clearCache) {
+                CompiledFilter.clearCache();
+            }
+            length += build(filters, types).expression().length();
+        }
+        if (length == 0) {
+            throw new IllegalStateException();
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private static Expression build(Map<String, String> filters, Map<String, Attributes.Type> types) {
+        FilterExpressionBuilder builder = new FilterExpressionBuilder(types);
+        filters.forEach(builder::addAttributeValue);
+        return builder.build();
+    }
+
+}
@@ -17,11 +17,15 @@
 
 package ua.org.java.dynamoit.components.tablegrid.parser.expression;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.*;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
 
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,25 +41,29 @@ public class FilterExpressionBuilderTest {
         assertNotNull(expression);
         assertEquals(expression.expression(), expressionValue);
         assertEquals(expression.expressionNames().size(), 1);
-        assertEquals(expression.expressionNames().get("#attr_2073134938"), "greetings");
+        assertEquals(expression.expressionNames().get("#a0"), "greetings");
         assertEquals(expression.expressionValues().size(), 1);
-        assertEquals(expression.expressionValues().get(":val_2073134938"), AttributeValue.builder().s("hello").build());
+        assertEquals(expression.expressionValues().get(":v0"), AttributeValue.builder().s("hello").build());
     }
 
     static Stream<Arguments> singleValidExpressionArguments() {
         return Stream.of(
-                Arguments.arguments("^hello", "begins_with(#attr_2073134938, :val_2073134938)"),
-                Arguments.arguments("~hello", "contains(#attr_2073134938, :val_2073134938)"),
-                Arguments.arguments("!~hello", "NOT contains(#attr_2073134938, :val_2073134938)"),
-                Arguments.arguments("hello", "#attr_2073134938 = :val_2073134938"),
-                Arguments.arguments("!=hello", "#attr_2073134938 <> :val_2073134938")
+                Arguments.arguments("^hello", "begins_with(#a0, :v0)"),
+                Arguments.arguments("~hello", "contains(#a0, :v0)"),
+                Arguments.arguments("!~hello", "NOT contains(#a0, :v0)"),
+                Arguments.arguments("hello", "#a0 = :v0"),
+                Arguments.arguments("!=hello", "#a0 <> :v0"),
+                Arguments.arguments(">hello", "#a0 > :v0"),
+                Arguments.arguments(">=hello", "#a0 >= :v0"),
+                Arguments.arguments("<hello", "#a0 < :v0"),
+                Arguments.arguments("<=hello", "#a0 <= :v0")
         );
     }
 
     @ParameterizedTest
     @NullSource
     @EmptySource
-    @ValueSource(strings = {"  ", "^", "^ ", " ^ ", "~", "~ ", " ~ ", "!~", "!~ ", " !~ ", "!=", "!= ", " != "})
+    @ValueSource(strings = {"  ", "^", "^ ", " ^ ", "~", "~ ", " ~ ", "!~", "!~ ", " !~ ", "!=", "!= ", " != ", ">", ">= ", "<", " <= "})
     public void TestBlankValueExpression(String filter) {
         FilterExpressionBuilder expressionBuilder = new FilterExpressionBuilder();
         expressionBuilder.addAttributeValue("greetings", filter);
@@ -66,5 +74,82 @@ public class FilterExpressionBuilderTest {
         assertNull(expression.expressionValues());
     }
 
+    @Test
+    public void TestBetweenExpression() {
+        Expression expression = new FilterExpressionBuilder().addAttributeValue("greetings", "between hello and world").build();
+        assertEquals("#a0 BETWEEN :v0 AND :v1", expression.expression());
+        assertEquals(AttributeValue.builder().s("hello").build(), expression.expressionValues().get(":v0"));
+        assertEquals(AttributeValue.builder().s("world").build(), expression.expressionValues().get(":v1"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("compoundExpressionArguments")
+    public void TestCompoundExpression(String filter, String expressionValue) {
+        Expression expression = new FilterExpressionBuilder(Map.of("greetings", Attributes.Type.NUMBER)).addAttributeValue("greetings", filter).build();
+        assertEquals(expressionValue, expression.expression());
+    }
+
+    static Stream<Arguments> compoundExpressionArguments() {
+        return Stream.of(
+                Arguments.arguments("1 or >5", "(#a0 = :v0) OR (#a0 > :v1)"),
+                Arguments.arguments("in (1, 2, 3)", "#a0 IN (:v0, :v1, :v2)"),
+                Arguments.arguments("size >= 2", "size(#a0) >= :v0"),
+                Arguments.arguments("type(n) and not (0)", "(attribute_type(#a0, :v0)) AND (NOT (#a0 = :v1))"),
+                Arguments.arguments("1 or (>=1 and <9)", "(#a0 = :v0) OR ((#a0 >= :v0) AND (#a0 < :v1))")
+        );
+    }
+
+    @Test
+    public void TestCompoundValues() {
+        Expression expression = new FilterExpressionBuilder(Map.of("greetings", Attributes.Type.NUMBER)).addAttributeValue("greetings", "type(n) or in (1, x)").build();
+        assertEquals(AttributeValue.fromS("N"), expression.expressionValues().get(":v0"));
+        assertEquals(AttributeValue.fromN("1"), expression.expressionValues().get(":v1"));
+        assertEquals(AttributeValue.fromS("x"), expression.expressionValues().get(":v2"));
+    }
+
+    @Test
+    public void TestPlaceholdersOfSeveralAttributes() {
+        Expression expression = new FilterExpressionBuilder(Map.of("age", Attributes.Type.NUMBER))
+                .addAttributeValue("greetings", "hello")
+                .addAttributeValue("name", "~hello")
+                .addAttributeValue("age", ">18")
+                .build();
+
+        assertEquals("((#a0 = :v0) AND (contains(#a1, :v0))) AND (#a2 > :v1)", expression.expression());
+        assertEquals(Map.of("#a0", "greetings", "#a1", "name", "#a2", "age"), expression.expressionNames());
+        assertEquals(Map.of(":v0", AttributeValue.fromS("hello"), ":v1", AttributeValue.fromN("18")), expression.expressionValues());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"hello", "^hello", ">hello", "<=hello", "between a and b"})
+    public void TestSortKeyExpression(String filter) {
+        assertTrue(FilterExpressionBuilder.isSortKeyExpression(filter));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"~hello", "!=hello", "$", "^", "between  and b"})
+    public void TestNotSortKeyExpression(String filter) {
+        assertFalse(FilterExpressionBuilder.isSortKeyExpression(filter));
+    }
+
+    @ParameterizedTest
+    @MethodSource("typedValueArguments")
+    public void TestTypedValue(Attributes.Type type, String filter, AttributeValue value) {
+        Expression expression = new FilterExpressionBuilder(Map.of("greetings", type)).addAttributeValue("greetings", filter).build();
+        assertEquals(value, expression.expressionValues().get(":v0"));
+    }
+
+    static Stream<Arguments> typedValueArguments() {
+        return Stream.of(
+                Arguments.arguments(Attributes.Type.NUMBER, "42", AttributeValue.fromN("42")),
+                Arguments.arguments(Attributes.Type.NUMBER, ">-1.5e3", AttributeValue.fromN("-1.5e3")),
+                Arguments.arguments(Attributes.Type.NUMBER, "forty", AttributeValue.fromS("forty")),
+                Arguments.arguments(Attributes.Type.NUMBER, "^4", AttributeValue.fromS("4")),
+                Arguments.arguments(Attributes.Type.BOOLEAN, "TRUE", AttributeValue.fromBool(true)),
+                Arguments.arguments(Attributes.Type.BOOLEAN, "!=false", AttributeValue.fromBool(false)),
+                Arguments.arguments(Attributes.Type.BINARY, "aGk=", AttributeValue.fromB(SdkBytes.fromUtf8String("hi"))),
+                Arguments.arguments(Attributes.Type.STRING, "42", AttributeValue.fromS("42"))
+        );
+    }
 
 }
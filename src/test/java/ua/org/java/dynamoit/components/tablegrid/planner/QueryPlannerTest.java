@@ -0,0 +1,152 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.planner;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryPlannerTest {
+
+    private static final long ITEMS = 1_000_000;
+    private static final long ITEM_SIZE = 1000;
+
+    @Test
+    public void preferTableQuery() {
+        QueryPlan plan = new QueryPlanner(table().build()).plan(Map.of("id", "1", "email", "a@b.c"));
+
+        assertEquals(QueryPlan.Access.QUERY, plan.access());
+        assertNull(plan.indexName());
+        assertEquals("id", plan.hashName());
+        assertEquals("created", plan.rangeName());
+    }
+
+    @Test
+    public void queryKeysOnlyIndexWithFetchBack() {
+        TableDescription description = table()
+                .globalSecondaryIndexes(gsi("email-index", ProjectionType.KEYS_ONLY, List.of()))
+                .build();
+
+        QueryPlan plan = new QueryPlanner(description).plan(Map.of("email", "a@b.c"));
+
+        assertEquals(QueryPlan.Access.QUERY, plan.access());
+        assertEquals("email-index", plan.indexName());
+        assertEquals("email", plan.hashName());
+        assertTrue(plan.fetchBack());
+    }
+
+    @Test
+    public void skipIndexWithoutFilteredAttribute() {
+        TableDescription description = table()
+                .globalSecondaryIndexes(gsi("email-index", ProjectionType.INCLUDE, List.of("name")))
+                .build();
+        QueryPlanner planner = new QueryPlanner(description);
+
+        assertFalse(planner.plan(Map.of("email", "a@b.c", "name", "John")).isScan());
+        assertTrue(planner.plan(Map.of("email", "a@b.c", "age", "42")).isScan());
+    }
+
+    @Test
+    public void queryLocalIndex() {
+        TableDescription description = table()
+                .localSecondaryIndexes(LocalSecondaryIndexDescription.builder()
+                        .indexName("id-email-index")
+                        .keySchema(key("id", KeyType.HASH), key("email", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.ALL).build())
+                        .itemCount(ITEMS)
+                        .indexSizeBytes(ITEMS * ITEM_SIZE)
+                        .build())
+                .build();
+
+        QueryPlan plan = new QueryPlanner(description).plan(Map.of("id", "1", "email", "a@b.c"));
+
+        assertEquals("id-email-index", plan.indexName());
+        assertEquals("email", plan.rangeName());
+        assertFalse(plan.fetchBack());
+    }
+
+    @Test
+    public void queryLocalIndexWithoutFilteredAttribute() {
+        TableDescription description = table()
+                .localSecondaryIndexes(LocalSecondaryIndexDescription.builder()
+                        .indexName("id-email-index")
+                        .keySchema(key("id", KeyType.HASH), key("email", KeyType.RANGE))
+                        .projection(Projection.builder().projectionType(ProjectionType.KEYS_ONLY).build())
+                        .itemCount(ITEMS)
+                        .indexSizeBytes(ITEMS * 100)
+                        .build())
+                .build();
+
+        QueryPlan plan = new QueryPlanner(description).plan(Map.of("id", "1", "email", "a@b.c", "name", "John"));
+
+        // DynamoDB reads the name from the table in the same query
+        assertEquals("id-email-index", plan.indexName());
+        assertFalse(plan.fetchBack());
+        // 100 items of the index and every one of them read from the table
+        assertEquals(1.5 + 50, plan.estimatedCapacity(), 0.001);
+    }
+
+    @Test
+    public void scanWithoutEqualityFilter() {
+        TableDescription description = table()
+                .globalSecondaryIndexes(gsi("email-index", ProjectionType.ALL, List.of()))
+                .build();
+        QueryPlanner planner = new QueryPlanner(description);
+
+        assertTrue(planner.plan(Map.of("email", "~a@b")).isScan());
+        assertTrue(planner.plan(Map.of("id", "^1")).isScan());
+        assertEquals(1, planner.candidates(Map.of()).size());
+    }
+
+    @Test
+    public void queryWhenStatisticsAreNotReady() {
+        TableDescription description = table().itemCount(0L).tableSizeBytes(0L)
+                .globalSecondaryIndexes(gsi("email-index", ProjectionType.KEYS_ONLY, List.of()))
+                .build();
+
+        QueryPlan plan = new QueryPlanner(description).plan(Map.of("email", "a@b.c"));
+
+        assertEquals("email-index", plan.indexName());
+    }
+
+    private static TableDescription.Builder table() {
+        return TableDescription.builder()
+                .tableName("Users")
+                .keySchema(key("id", KeyType.HASH), key("created", KeyType.RANGE))
+                .itemCount(ITEMS)
+                .tableSizeBytes(ITEMS * ITEM_SIZE);
+    }
+
+    private static GlobalSecondaryIndexDescription gsi(String name, ProjectionType projectionType, List<String> nonKeyAttributes) {
+        return GlobalSecondaryIndexDescription.builder()
+                .indexName(name)
+                .keySchema(key("email", KeyType.HASH))
+                .projection(Projection.builder().projectionType(projectionType).nonKeyAttributes(nonKeyAttributes).build())
+                .itemCount(ITEMS)
+                .indexSizeBytes(ITEMS * 100)
+                .build();
+    }
+
+    private static KeySchemaElement key(String name, KeyType keyType) {
+        return KeySchemaElement.builder().attributeName(name).keyType(keyType).build();
+    }
+
+}
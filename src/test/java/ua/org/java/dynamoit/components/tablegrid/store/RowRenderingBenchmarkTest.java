@@ -0,0 +1,121 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of the cell values of one screen of rows while scrolling through result sets of different size,
+ * run with -Pbenchmark
+ */
+@Tag("benchmark")
+public class RowRenderingBenchmarkTest {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000, 500_000};
+    private static final int COLUMNS = 10;
+    private static final int PAGE_SIZE = 1_000;
+    private static final int VISIBLE_ROWS = 40;
+    private static final int FRAMES = 20_000;
+    private static final int LINEAR_FRAMES = 20;
+
+    @Test
+    public void scrollRows() {
+        for (int size : SIZES) {
+            ObservableList<EnhancedDocument> rows = load(size);
+
+            scroll(rows, FRAMES, true);
+            scroll(rows, LINEAR_FRAMES, false);
+            long frameNanos = scroll(rows, FRAMES, true);
+            long linearFrameNanos = scroll(rows, LINEAR_FRAMES, false);
+
+            System.out.printf("%d rows: %d us per frame, %d us per frame with indexOf%n",
+                    size, TimeUnit.NANOSECONDS.toMicros(frameNanos), TimeUnit.NANOSECONDS.toMicros(linearFrameNanos));
+        }
+    }
+
+    private static ObservableList<EnhancedDocument> load(int size) {
+        RowStore store = new RowStore();
+        SchemaTracker schema = new SchemaTracker();
+        ObservableList<EnhancedDocument> rows = FXCollections.observableArrayList();
+        for (int start = 0; start < size; start += PAGE_SIZE) {
+            List<EnhancedDocument> page = new ArrayList<>(PAGE_SIZE);
+            for (int i = start; i < Math.min(size, start + PAGE_SIZE); i++) {
+                page.add(document(i));
+            }
+            rows.addAll(store.addAll(RowStore.prepare(page, schema, Runnable::run).join()));
+        }
+        return rows;
+    }
+
+    private static EnhancedDocument document(int i) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", AttributeValue.fromS("id-" + i));
+        for (int column = 1; column < COLUMNS; column++) {
+            item.put("attribute" + column, column % 2 == 0 ? AttributeValue.fromN(String.valueOf(i * column)) : AttributeValue.fromS("value " + i % 100));
+        }
+        return EnhancedDocument.fromAttributeValueMap(item);
+    }
+
+    /**
+     * Jumps through the whole result set
+     *
+     * @return average nanoseconds per frame
+     */
+    private static long scroll(List<EnhancedDocument> rows, int frames, boolean storedIndex) {
+        int length = 0;
+        long start = System.nanoTime();
+        for (int frame = 0; frame < frames; frame++) {
+            int first = (int) ((long) frame * 7919 % (rows.size() - VISIBLE_ROWS));
+            length += frame(rows, first, storedIndex);
+        }
+        if (length == 0) {
+            throw new IllegalStateException();
+        }
+        return (System.nanoTime() - start) / frames;
+    }
+
+    /**
+     * Cell values of the visible rows, the way the grid columns compute them
+     */
+    private static int frame(List<EnhancedDocument> rows, int first, boolean storedIndex) {
+        int length = 0;
+        for (int i = first; i < first + VISIBLE_ROWS; i++) {
+            StoredDocument row = (StoredDocument) rows.get(i);
+            int number = storedIndex ? row.getIndex() + 1 : rows.indexOf(row) + 1;
+            assertEquals(i + 1, number);
+            length += row.display("id").length();
+            for (int column = 1; column < COLUMNS; column++) {
+                length += row.display("attribute" + column).length();
+            }
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RowStoreTest {
+
+    @Test
+    public void testItemIsRebuilt() {
+        Map<String, AttributeValue> item = new LinkedHashMap<>();
+        item.put("id", AttributeValue.fromS("a1"));
+        item.put("count", AttributeValue.fromN("12"));
+        item.put("negative", AttributeValue.fromN("-42"));
+        item.put("price", AttributeValue.fromN("12.50"));
+        item.put("padded", AttributeValue.fromN("007"));
+        item.put("huge", AttributeValue.fromN("123456789012345678901234567890"));
+        item.put("active", AttributeValue.fromBool(false));
+        item.put("nothing", AttributeValue.fromNul(true));
+        item.put("bytes", AttributeValue.fromB(SdkBytes.fromUtf8String("hi")));
+        item.put("tags", AttributeValue.fromSs(List.of("x", "y")));
+        item.put("list", AttributeValue.fromL(List.of(AttributeValue.fromS("x"), AttributeValue.fromN("3"))));
+        item.put("map", AttributeValue.fromM(Map.of("k", AttributeValue.fromS("v"))));
+
+        RowStore store = new RowStore();
+        List<EnhancedDocument> rows = store.addAll(prepare(List.of(EnhancedDocument.fromAttributeValueMap(item))));
+
+        assertEquals(1, store.size());
+        assertEquals(item, rows.get(0).toMap());
+        assertEquals(EnhancedDocument.fromAttributeValueMap(item).toJson(), rows.get(0).toJson());
+    }
+
+    @Test
+    public void testDisplayValues() {
+        StoredDocument row = (StoredDocument) new RowStore().addAll(prepare(List.of(EnhancedDocument.fromJson("""
+                {"s": "hello", "n": 12, "f": 1.5, "b": true, "nul": null, "m": {"k": "v"}}
+                """)))).get(0);
+
+        assertEquals("hello", row.display("s"));
+        assertEquals("12", row.display("n"));
+        assertEquals("1.5", row.display("f"));
+        assertEquals("true", row.display("b"));
+        assertEquals("null", row.display("nul"));
+        assertEquals("{\"k\":\"v\"}", row.display("m"));
+        assertEquals("", row.display("missing"));
+        assertTrue(row.isPresent("nul"));
+        assertTrue(row.isNull("nul"));
+        assertFalse(row.isPresent("missing"));
+    }
+
+    @Test
+    public void testSparseAttributes() {
+        RowStore store = new RowStore();
+        List<EnhancedDocument> rows = store.addAll(prepare(List.of(
+                EnhancedDocument.fromJson("{\"id\": \"1\"}"),
+                EnhancedDocument.fromJson("{\"id\": \"2\", \"late\": 5}"),
+                EnhancedDocument.fromJson("{\"id\": \"1\", \"late\": \"text\"}")
+        )));
+
+        assertEquals(Map.of("id", AttributeValue.fromS("1")), rows.get(0).toMap());
+        assertEquals(AttributeValue.fromN("5"), ((StoredDocument) rows.get(1)).attribute("late"));
+        assertEquals(AttributeValue.fromS("text"), ((StoredDocument) rows.get(2)).attribute("late"));
+        assertNull(((StoredDocument) rows.get(0)).attribute("late"));
+        // rows with the same values are still different rows
+        assertNotEquals(rows.get(0), rows.get(2));
+    }
+
+    @Test
+    public void testComplexValuesAreDisplayedWithPage() {
+        RowStore.Page page = prepare(List.of(EnhancedDocument.fromJson("""
+                {"s": "hello", "l": [1, "a"], "m": {"k": "v"}}
+                """)));
+
+        assertEquals(List.of(Map.of("l", "[1,\"a\"]", "m", "{\"k\":\"v\"}")), page.displays());
+        assertEquals("[1,\"a\"]", ((StoredDocument) new RowStore().addAll(page).get(0)).display("l"));
+    }
+
+    @Test
+    public void testUnreadAttributesAreSetToRows() {
+        RowStore store = new RowStore(Set.of("id"));
+        List<EnhancedDocument> items = List.of(EnhancedDocument.fromJson("{\"id\": \"1\"}"), EnhancedDocument.fromJson("{\"id\": \"2\"}"));
+        store.received(items, store.getProjection());
+        List<EnhancedDocument> rows = store.addAll(RowStore.prepare(items, store::receivedProjection, new SchemaTracker(), Runnable::run).join());
+        assertTrue(store.takeUnread(rows).isEmpty());
+
+        store.addProjection(List.of("name"));
+        Map<Set<String>, List<StoredDocument>> unread = store.takeUnread(rows);
+        assertEquals(Map.of(Set.of("name"), rows), unread);
+        // the rows are read once
+        assertTrue(store.takeUnread(rows).isEmpty());
+
+        store.set(unread.get(Set.of("name")), prepare(List.of(EnhancedDocument.fromJson("{\"name\": \"John\"}"), EnhancedDocument.fromJson("{}"))));
+        assertEquals(Map.of("id", AttributeValue.fromS("1"), "name", AttributeValue.fromS("John")), rows.get(0).toMap());
+        assertEquals(Map.of("id", AttributeValue.fromS("2")), rows.get(1).toMap());
+    }
+
+    @Test
+    public void testDictionary() {
+        Dictionary dictionary = new Dictionary();
+        int code = dictionary.encode("a");
+
+        assertEquals(code, dictionary.encode("a"));
+        assertNotEquals(code, dictionary.encode("b"));
+        assertEquals("b", dictionary.decode(dictionary.encode("b")));
+        assertEquals(2, dictionary.distinct());
+    }
+
+    @Test
+    public void testCanonicalLong() {
+        assertTrue(Column.isCanonicalLong("0"));
+        assertTrue(Column.isCanonicalLong("-15"));
+        assertTrue(Column.isCanonicalLong("123456789012345678"));
+        assertFalse(Column.isCanonicalLong("-0"));
+        assertFalse(Column.isCanonicalLong("007"));
+        assertFalse(Column.isCanonicalLong("1.5"));
+        assertFalse(Column.isCanonicalLong("1e3"));
+        assertFalse(Column.isCanonicalLong("-"));
+        assertFalse(Column.isCanonicalLong("1234567890123456789"));
+    }
+
+    private static RowStore.Page prepare(List<EnhancedDocument> documents) {
+        return RowStore.prepare(documents, new SchemaTracker(), Runnable::run).join();
+    }
+
+}
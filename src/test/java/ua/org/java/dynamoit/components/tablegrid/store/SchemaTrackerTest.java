@@ -0,0 +1,68 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.store;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes.Type;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaTrackerTest {
+
+    @Test
+    public void testOnlyChangesAreReported() {
+        SchemaTracker schema = new SchemaTracker();
+
+        assertEquals(Map.of("id", Type.STRING, "n", Type.NUMBER), schema.fold(List.of(
+                Map.of("id", AttributeValue.fromS("1"), "n", AttributeValue.fromN("1")),
+                Map.of("id", AttributeValue.fromS("2"))
+        )));
+        assertEquals(Map.of(), schema.fold(List.of(Map.of("id", AttributeValue.fromS("3"), "n", AttributeValue.fromN("3")))));
+        assertEquals(Map.of("flag", Type.BOOLEAN), schema.fold(List.of(Map.of("id", AttributeValue.fromS("4"), "flag", AttributeValue.fromBool(true)))));
+    }
+
+    @Test
+    public void testMostFrequentTypeWins() {
+        SchemaTracker schema = new SchemaTracker();
+        schema.fold(List.of(Map.of("v", AttributeValue.fromN("1"))));
+
+        // a tie keeps the current type
+        assertEquals(Map.of(), schema.fold(List.of(Map.of("v", AttributeValue.fromS("a")))));
+        assertEquals(Map.of("v", Type.STRING), schema.fold(List.of(Map.of("v", AttributeValue.fromS("b")))));
+
+        assertTrue(schema.isMixed("v"));
+        assertEquals(Set.of(Type.NUMBER, Type.STRING), schema.getTypes("v"));
+        assertFalse(schema.isMixed("missing"));
+    }
+
+    @Test
+    public void testComplexValuesAreStrings() {
+        SchemaTracker schema = new SchemaTracker();
+
+        assertEquals(Map.of("m", Type.STRING, "b", Type.BINARY), schema.fold(List.of(Map.of(
+                "m", AttributeValue.fromM(Map.of()),
+                "b", AttributeValue.fromB(SdkBytes.fromUtf8String("x"))
+        ))));
+    }
+
+}
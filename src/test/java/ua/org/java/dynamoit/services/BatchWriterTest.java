@@ -0,0 +1,188 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.services;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BatchWriterTest {
+
+    private static final TableDescription TABLE = TableDescription.builder()
+            .tableName("Users")
+            .provisionedThroughput(ProvisionedThroughputDescription.builder().writeCapacityUnits(1000L).build())
+            .build();
+
+    private final List<WriteRequest> firstAttempts = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void retryUnprocessedItems() {
+        DynamoDbClient dbClient = mock(DynamoDbClient.class);
+        List<WriteRequest> written = Collections.synchronizedList(new ArrayList<>());
+        List<WriteRequest> requests = IntStream.range(0, 60).mapToObj(BatchWriterTest::put).toList();
+
+        when(dbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            BatchWriteItemRequest request = invocation.getArgument(0);
+            List<WriteRequest> batch = request.requestItems().get("Users");
+            // the first item of every batch is processed with the next attempt
+            WriteRequest first = batch.getFirst();
+            boolean firstAttempt = !written.contains(first) && !firstAttempts.contains(first);
+            List<WriteRequest> unprocessed = firstAttempt ? List.of(first) : List.of();
+            if (firstAttempt) {
+                firstAttempts.add(first);
+            }
+            batch.stream().filter(r -> !unprocessed.contains(r)).forEach(written::add);
+            return BatchWriteItemResponse.builder()
+                    .unprocessedItems(unprocessed.isEmpty() ? Map.of() : Map.of("Users", unprocessed))
+                    .consumedCapacity(ConsumedCapacity.builder().tableName("Users").capacityUnits((double) batch.size() - unprocessed.size()).build())
+                    .build();
+        });
+
+        BatchWriter batchWriter = new BatchWriter(dbClient, TABLE, Runnable::run);
+        BatchWriteSummary summary = batchWriter.write(requests);
+
+        assertEquals(60, summary.succeeded());
+        assertEquals(3, summary.retries());
+        assertEquals(60, summary.consumedCapacity());
+        assertTrue(summary.isComplete());
+        assertEquals(60, written.size());
+        assertTrue(written.containsAll(requests));
+        assertTrue(batchWriter.getConsumedPerSecond() > 0);
+        assertTrue(batchWriter.getRateLimit() < 1000);
+    }
+
+    @Test
+    public void retryThrottledRequests() {
+        DynamoDbClient dbClient = mock(DynamoDbClient.class);
+        List<WriteRequest> requests = IntStream.range(0, 10).mapToObj(BatchWriterTest::put).toList();
+
+        when(dbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenThrow(ProvisionedThroughputExceededException.builder().message("throttled").build())
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        BatchWriter batchWriter = new BatchWriter(dbClient, TABLE, Runnable::run);
+        batchWriter.write(requests);
+
+        // halved after the throttling and increased by 5% of the provisioned capacity after the retry
+        assertEquals(550, batchWriter.getRateLimit());
+    }
+
+    @Test
+    public void retryUnprocessedDeletes() {
+        DynamoDbClient dbClient = mock(DynamoDbClient.class);
+        List<WriteRequest> requests = IntStream.range(0, 5).mapToObj(BatchWriterTest::delete).toList();
+
+        when(dbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                // unprocessed items are returned as equal copies of the sent requests
+                .thenReturn(BatchWriteItemResponse.builder().unprocessedItems(Map.of("Users", List.of(delete(1), delete(3)))).build())
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        BatchWriteSummary summary = new BatchWriter(dbClient, TABLE, Runnable::run).write(requests);
+
+        ArgumentCaptor<BatchWriteItemRequest> captor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(dbClient, times(2)).batchWriteItem(captor.capture());
+        assertEquals(List.of(delete(1), delete(3)), captor.getAllValues().get(1).requestItems().get("Users"));
+        assertEquals(5, summary.succeeded());
+        assertEquals(2, summary.retries());
+        assertTrue(summary.isComplete());
+    }
+
+    @Test
+    public void failItemsAfterMaxAttempts() {
+        DynamoDbClient dbClient = mock(DynamoDbClient.class);
+        List<WriteRequest> requests = IntStream.range(0, 3).mapToObj(BatchWriterTest::delete).toList();
+
+        when(dbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenReturn(BatchWriteItemResponse.builder().unprocessedItems(Map.of("Users", List.of(delete(2)))).build());
+
+        BatchWriter batchWriter = new BatchWriter(dbClient, TABLE, Runnable::run);
+        batchWriter.setMaxAttempts(3);
+        BatchWriteSummary summary = batchWriter.write(requests);
+
+        verify(dbClient, times(3)).batchWriteItem(any(BatchWriteItemRequest.class));
+        assertEquals(2, summary.succeeded());
+        assertEquals(2, summary.retries());
+        assertEquals(List.of(new BatchWriteSummary.Failure(delete(2), "unprocessed after 3 attempts")), summary.failures());
+    }
+
+    @Test
+    public void failOnlyItemsOfFailedRequest() {
+        DynamoDbClient dbClient = mock(DynamoDbClient.class);
+        List<WriteRequest> requests = IntStream.range(0, 30).mapToObj(BatchWriterTest::put).toList();
+
+        when(dbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenThrow(DynamoDbException.builder().message("invalid item").build())
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        BatchWriteSummary summary = new BatchWriter(dbClient, TABLE, Runnable::run).write(requests);
+
+        assertEquals(5, summary.succeeded());
+        assertEquals(25, summary.failed());
+        assertFalse(summary.isComplete());
+        assertEquals("invalid item", summary.failures().getFirst().reason());
+    }
+
+    @Test
+    public void failItemsOfDeadTask() {
+        DynamoDbClient dbClient = mock(DynamoDbClient.class);
+        List<WriteRequest> requests = IntStream.range(0, 30).mapToObj(BatchWriterTest::put).toList();
+
+        when(dbClient.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenThrow(new OutOfMemoryError("no memory"))
+                .thenReturn(BatchWriteItemResponse.builder().build());
+
+        // the executor thread dies with the error, the items of its request are left in flight
+        BatchWriteSummary summary = new BatchWriter(dbClient, TABLE, task -> {
+            try {
+                task.run();
+            } catch (Error e) {
+                // the thread dies
+            }
+        }).write(requests);
+
+        assertEquals(5, summary.succeeded());
+        assertEquals(25, summary.failed());
+        assertEquals("not written, IN_FLIGHT", summary.failures().getFirst().reason());
+    }
+
+    private static WriteRequest delete(int id) {
+        return WriteRequest.builder()
+                .deleteRequest(r -> r.key(Map.of("id", AttributeValue.fromS(String.valueOf(id)))))
+                .build();
+    }
+
+    private static WriteRequest put(int id) {
+        return WriteRequest.builder()
+                .putRequest(r -> r.item(Map.of("id", AttributeValue.fromS(String.valueOf(id)))))
+                .build();
+    }
+
+}
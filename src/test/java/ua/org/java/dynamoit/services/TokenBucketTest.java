@@ -0,0 +1,64 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void limitAverageRate() {
+        TokenBucket bucket = new TokenBucket(10, clock::get);
+
+        assertEquals(0, bucket.tryAcquire(25));
+        // the bucket is in debt of 15 tokens which takes 1.5 seconds to refill
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), bucket.tryAcquire(1));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(0, bucket.tryAcquire(1));
+    }
+
+    @Test
+    public void notAccumulateMoreThanOneSecond() {
+        TokenBucket bucket = new TokenBucket(10, clock::get);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(0, bucket.tryAcquire(10));
+        assertEquals(0, bucket.tryAcquire(1));
+        assertTrue(bucket.tryAcquire(1) > 0);
+    }
+
+    @Test
+    public void changeRate() {
+        TokenBucket bucket = new TokenBucket(100, clock::get);
+        bucket.setRate(5);
+
+        assertEquals(5, bucket.getRate());
+        assertEquals(0, bucket.tryAcquire(10));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire(1));
+    }
+
+}
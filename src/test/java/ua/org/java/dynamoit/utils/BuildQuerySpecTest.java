@@ -19,17 +19,18 @@ package ua.org.java.dynamoit.utils;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.internal.conditional.EqualToConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
 
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static ua.org.java.dynamoit.utils.Utils.attributeName;
-import static ua.org.java.dynamoit.utils.Utils.attributeValue;
 
 public class BuildQuerySpecTest {
 
@@ -63,12 +64,11 @@ public class BuildQuerySpecTest {
         assertEquals(2, request.filterExpression().expressionNames().size());
         assertEquals(2, request.filterExpression().expressionValues().size());
 
-        assertNotNull(request.filterExpression());
-        assertEquals("attribute1", request.filterExpression().expressionNames().get(attributeName("attribute1")));
-        assertEquals("attribute2", request.filterExpression().expressionNames().get(attributeName("attribute2")));
-        assertEquals("value1", request.filterExpression().expressionValues().get(attributeValue("attribute1")).s());
-        assertEquals("value2", request.filterExpression().expressionValues().get(attributeValue("attribute2")).s());
-        assertEquals(String.format("(%1$s = %2$s) AND (%3$s = %4$s)", attributeName("attribute1"), attributeValue("attribute1"), attributeName("attribute2"), attributeValue("attribute2")), request.filterExpression().expression());
+        Expression filter = request.filterExpression();
+        assertEquals(String.format("(%1$s = %2$s) AND (%3$s = %4$s)",
+                        name(filter, "attribute1"), value(filter, "value1"),
+                        name(filter, "attribute2"), value(filter, "value2")),
+                filter.expression());
     }
 
     @Test
@@ -85,17 +85,14 @@ public class BuildQuerySpecTest {
                 .build()), queryConditional);
 
         assertNotNull(request.filterExpression());
-        assertEquals("rangeKey", request.filterExpression().expressionNames().get(attributeName("rangeKey")));
-        assertEquals("attribute1", request.filterExpression().expressionNames().get(attributeName("attribute1")));
-        assertEquals("attribute2", request.filterExpression().expressionNames().get(attributeName("attribute2")));
-        assertEquals("rangeValue", request.filterExpression().expressionValues().get(attributeValue("rangeKey")).s());
-        assertEquals("value1", request.filterExpression().expressionValues().get(attributeValue("attribute1")).s());
-        assertEquals("value2", request.filterExpression().expressionValues().get(attributeValue("attribute2")).s());
+        Expression filter = request.filterExpression();
+        assertEquals(3, filter.expressionNames().size());
+        assertEquals(3, filter.expressionValues().size());
         assertEquals(String.format("((%1$s = %2$s) AND (%3$s = %4$s)) AND (%5$s = %6$s)",
-                attributeName("rangeKey"), attributeValue("rangeKey"),
-                attributeName("attribute1"), attributeValue("attribute1"),
-                attributeName("attribute2"), attributeValue("attribute2")),
-                request.filterExpression().expression());
+                        name(filter, "rangeKey"), value(filter, "rangeValue"),
+                        name(filter, "attribute1"), value(filter, "value1"),
+                        name(filter, "attribute2"), value(filter, "value2")),
+                filter.expression());
     }
 
     @Test
@@ -118,6 +115,93 @@ public class BuildQuerySpecTest {
         assertNull(request.filterExpression().expression());
     }
 
+    @Test
+    public void testBuildQuerySpecWithRangeKeyCondition() {
+        attributeFilterMap.put("rangeKey", "^2024-");
+
+        QueryEnhancedRequest request = Utils.buildQuerySpec("hashKey", "rangeKey", attributeFilterMap, 10);
+
+        assertEquals(QueryConditional.sortBeginsWith(Key.builder().partitionValue("hashValue").sortValue("2024-").build()), request.queryConditional());
+        assertFalse(request.filterExpression().expressionNames().containsValue("rangeKey"));
+        assertEquals(2, request.filterExpression().expressionNames().size());
+    }
+
+    @Test
+    public void testBuildQuerySpecWithRangeKeyBetween() {
+        attributeFilterMap.put("rangeKey", "between 2024-01 and 2024-06");
+
+        QueryEnhancedRequest request = Utils.buildQuerySpec("hashKey", "rangeKey", attributeFilterMap, 10);
+
+        assertEquals(QueryConditional.sortBetween(
+                Key.builder().partitionValue("hashValue").sortValue("2024-01").build(),
+                Key.builder().partitionValue("hashValue").sortValue("2024-06").build()
+        ), request.queryConditional());
+    }
+
+    @Test
+    public void testBuildQuerySpecWithRangeKeyFilter() {
+        attributeFilterMap.put("rangeKey", "~2024");
+
+        QueryEnhancedRequest request = Utils.buildQuerySpec("hashKey", "rangeKey", attributeFilterMap, 10);
+
+        assertEquals(QueryConditional.keyEqualTo(Key.builder().partitionValue("hashValue").build()), request.queryConditional());
+        Expression filter = request.filterExpression();
+        assertTrue(filter.expression().contains(String.format("contains(%s, %s)", name(filter, "rangeKey"), value(filter, "2024"))));
+    }
+
+    @Test
+    public void testBuildQuerySpecWithNumericKeys() {
+        Map<String, String> filterMap = Map.of("hashKey", "42", "rangeKey", ">=1.5", "attribute1", "7");
+        Map<String, Attributes.Type> types = Map.of("hashKey", Attributes.Type.NUMBER, "rangeKey", Attributes.Type.NUMBER);
+
+        QueryEnhancedRequest request = Utils.buildQuerySpec("hashKey", "rangeKey", filterMap, types, 10);
+
+        assertEquals(QueryConditional.sortGreaterThanOrEqualTo(Key.builder()
+                .partitionValue(AttributeValue.fromN("42"))
+                .sortValue(AttributeValue.fromN("1.5"))
+                .build()), request.queryConditional());
+        assertEquals("#a0 = :v0", request.filterExpression().expression());
+        assertEquals(AttributeValue.fromS("7"), request.filterExpression().expressionValues().get(":v0"));
+    }
+
+    @Test
+    public void testBuildQuerySpecWithQuotedHashValue() {
+        Map<String, String> filterMap = Map.of("hashKey", "'Tom or Jerry'");
+
+        QueryEnhancedRequest request = Utils.buildQuerySpec("hashKey", "rangeKey", filterMap, 10);
+
+        assertEquals(QueryConditional.keyEqualTo(Key.builder().partitionValue("Tom or Jerry").build()), request.queryConditional());
+    }
+
+    @Test
+    public void testBuildQuerySpecWithEqualsHashValue() {
+        Map<String, String> filterMap = Map.of("hashKey", "=42", "rangeKey", "^2024-");
+        Map<String, Attributes.Type> types = Map.of("hashKey", Attributes.Type.NUMBER);
+
+        QueryEnhancedRequest request = Utils.buildQuerySpec("hashKey", "rangeKey", filterMap, types, 10);
+
+        assertEquals(QueryConditional.sortBeginsWith(Key.builder()
+                .partitionValue(AttributeValue.fromN("42"))
+                .sortValue("2024-")
+                .build()), request.queryConditional());
+    }
+
+    private static String name(Expression expression, String attribute) {
+        return placeholder(expression.expressionNames(), attribute);
+    }
+
+    private static String value(Expression expression, String value) {
+        return placeholder(expression.expressionValues(), AttributeValue.fromS(value));
+    }
+
+    private static <T> String placeholder(Map<String, T> placeholders, T value) {
+        return placeholders.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(value))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No placeholder of " + value));
+    }
+
 //    @Test
 //    public void testBuildQuerySpecWithMissingPartitionKey() {
 //        Map<String, String> invalidFilterMap = new HashMap<>();
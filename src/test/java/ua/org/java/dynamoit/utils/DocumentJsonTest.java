@@ -0,0 +1,73 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DocumentJsonTest {
+
+    @Test
+    public void writeItemAsEnhancedDocument() throws IOException {
+        Map<String, AttributeValue> item = new LinkedHashMap<>();
+        item.put("s", AttributeValue.fromS("he\"llo"));
+        item.put("n", AttributeValue.fromN("12.50"));
+        item.put("b", AttributeValue.fromB(SdkBytes.fromUtf8String("hi")));
+        item.put("bool", AttributeValue.fromBool(true));
+        item.put("nul", AttributeValue.fromNul(true));
+        item.put("ss", AttributeValue.fromSs(List.of("a", "b")));
+        item.put("ns", AttributeValue.fromNs(List.of("1", "2")));
+        item.put("bs", AttributeValue.fromBs(List.of(SdkBytes.fromUtf8String("x"))));
+        item.put("l", AttributeValue.fromL(List.of(AttributeValue.fromS("x"), AttributeValue.fromN("3"))));
+        item.put("m", AttributeValue.fromM(Map.of("k", AttributeValue.fromS("v"))));
+
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+            DocumentJson.writeItem(generator, item);
+        }
+
+        assertEquals(EnhancedDocument.fromAttributeValueMap(item).toJson(), writer.toString());
+    }
+
+    @Test
+    public void readItemAsEnhancedDocument() throws IOException {
+        //language=json
+        String json = """
+                {"s": "hello", "n": 1e3, "f": 12.50, "bool": false, "nul": null, "l": ["x", 3, {"k": [true]}], "m": {"k": "v"}}
+                """;
+
+        try (JsonParser parser = new JsonFactory().createParser(json)) {
+            parser.nextToken();
+            assertEquals(EnhancedDocument.fromJson(json).toMap(), DocumentJson.readItem(parser));
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruCacheTest {
+
+    @Test
+    public void loadOnce() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(5, cache.get("hello", key -> loads.incrementAndGet() * key.length()));
+        assertEquals(5, cache.get("hello", key -> loads.incrementAndGet() * key.length()));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.get("a", key -> key);
+        cache.get("b", key -> key);
+        cache.get("a", key -> key);
+        cache.get("c", key -> key);
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get("a", key -> fail("a is evicted")));
+        assertEquals("B", cache.get("b", String::toUpperCase));
+    }
+
+    @Test
+    public void nullIsNotCached() {
+        LruCache<String, String> cache = new LruCache<>(2);
+
+        assertNull(cache.get("a", key -> null));
+        assertEquals(0, cache.size());
+    }
+
+}